@@ -0,0 +1,93 @@
+package com.tuanphong.yearreviewtft.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuanphong.yearreviewtft.config.MatchArchiveProperties;
+import com.tuanphong.yearreviewtft.persistence.MatchArchive;
+import com.tuanphong.yearreviewtft.persistence.MatchPayloadCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading one archived payload into a tree: from the segment mapping (inflate from the mapped buffer,
+ * parse bytes) vs. copying it out and going through a String like the JDBC path does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArchiveReadBenchmark {
+
+    private static final int PAYLOADS = 2000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Path dir;
+    private MatchArchive archive;
+    private String[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("match-archive-bench");
+        archive = new MatchArchive(new MatchArchiveProperties(true, dir, Duration.ofDays(30), "0 0 5 * * *", 500,
+                DataSize.ofMegabytes(16)));
+
+        List<SyntheticMatches.Match> matches = SyntheticMatches.generate(PAYLOADS, 42L);
+        List<MatchArchive.Entry> entries = new ArrayList<>();
+        ids = new String[PAYLOADS];
+        for (int i = 0; i < PAYLOADS; i++) {
+            ids[i] = matches.get(i).matchId();
+            byte[] raw = matches.get(i).payloadJson().getBytes(StandardCharsets.UTF_8);
+            entries.add(new MatchArchive.Entry(ids[i], new MatchPayloadCodec.Encoded(MatchPayloadCodec.deflate(raw, null), null)));
+        }
+        archive.append(entries);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        archive.close();
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    private String nextId() {
+        String id = ids[next];
+        next = (next + 1) % PAYLOADS;
+        return id;
+    }
+
+    @Benchmark
+    public void mappedSlice(Blackhole bh) throws Exception {
+        MatchArchive.Slice slice = archive.slice(nextId()).orElseThrow();
+        bh.consume(objectMapper.readTree(MatchPayloadCodec.inflate(slice.bytes(), null)));
+    }
+
+    @Benchmark
+    public void copiedString(Blackhole bh) throws Exception {
+        MatchPayloadCodec.Encoded encoded = archive.read(nextId()).orElseThrow();
+        bh.consume(objectMapper.readTree(new String(MatchPayloadCodec.inflate(encoded.bytes(), null), StandardCharsets.UTF_8)));
+    }
+}
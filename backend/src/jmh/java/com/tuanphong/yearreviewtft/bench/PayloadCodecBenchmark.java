@@ -0,0 +1,102 @@
+package com.tuanphong.yearreviewtft.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuanphong.yearreviewtft.persistence.MatchPayloadCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read latency of one match payload as stored today (jsonb text -> tree) vs. compressed bytea
+ * (inflate, with and without the trained dictionary -> tree). The storage footprint of each form is
+ * printed at setup; on a real database compare with
+ * {@code select avg(pg_column_size(payload_json)), avg(pg_column_size(payload_compressed)) from match_cache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadCodecBenchmark {
+
+    private static final int PAYLOADS = 500;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String[] json;
+    private byte[][] plain;
+    private byte[][] withDictionary;
+    private byte[] dictionary;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<SyntheticMatches.Match> training = SyntheticMatches.generate(300, 7L);
+        dictionary = MatchPayloadCodec.trainDictionary(
+                training.stream().map(SyntheticMatches.Match::payloadJson).toList(),
+                MatchPayloadCodec.MAX_DICTIONARY_BYTES);
+
+        // different seed: measure on payloads the dictionary has not seen
+        List<SyntheticMatches.Match> matches = SyntheticMatches.generate(PAYLOADS, 42L);
+        json = new String[PAYLOADS];
+        plain = new byte[PAYLOADS][];
+        withDictionary = new byte[PAYLOADS][];
+
+        long rawBytes = 0, plainBytes = 0, dictBytes = 0;
+        for (int i = 0; i < PAYLOADS; i++) {
+            json[i] = matches.get(i).payloadJson();
+            byte[] raw = json[i].getBytes(StandardCharsets.UTF_8);
+            plain[i] = MatchPayloadCodec.deflate(raw, null);
+            withDictionary[i] = MatchPayloadCodec.deflate(raw, dictionary);
+            rawBytes += raw.length;
+            plainBytes += plain[i].length;
+            dictBytes += withDictionary[i].length;
+        }
+
+        System.out.printf("%nFootprint per payload: json %d B | zlib %d B (%.1fx) | zlib+dict %d B (%.1fx), dictionary %d B%n",
+                rawBytes / PAYLOADS,
+                plainBytes / PAYLOADS, (double) rawBytes / plainBytes,
+                dictBytes / PAYLOADS, (double) rawBytes / dictBytes,
+                dictionary.length);
+    }
+
+    private int nextIndex() {
+        int i = next;
+        next = (i + 1) % PAYLOADS;
+        return i;
+    }
+
+    @Benchmark
+    public void readJsonb(Blackhole bh) throws Exception {
+        bh.consume(objectMapper.readTree(json[nextIndex()]));
+    }
+
+    @Benchmark
+    public void readCompressed(Blackhole bh) throws Exception {
+        bh.consume(objectMapper.readTree(MatchPayloadCodec.inflate(plain[nextIndex()], null)));
+    }
+
+    @Benchmark
+    public void readCompressedWithDictionary(Blackhole bh) throws Exception {
+        bh.consume(objectMapper.readTree(MatchPayloadCodec.inflate(withDictionary[nextIndex()], dictionary)));
+    }
+
+    @Benchmark
+    public byte[] writeCompressedWithDictionary() {
+        return MatchPayloadCodec.deflate(json[nextIndex()].getBytes(StandardCharsets.UTF_8), dictionary);
+    }
+}
@@ -0,0 +1,154 @@
+package com.tuanphong.yearreviewtft.bench;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuanphong.yearreviewtft.service.WrappedSummaryService;
+import com.tuanphong.yearreviewtft.service.summary.Aggregators;
+import com.tuanphong.yearreviewtft.service.summary.AugmentAggregator;
+import com.tuanphong.yearreviewtft.service.summary.BestWorstAggregator;
+import com.tuanphong.yearreviewtft.service.summary.CompAggregator;
+import com.tuanphong.yearreviewtft.service.summary.MonthlyAggregator;
+import com.tuanphong.yearreviewtft.service.summary.PlacementAggregator;
+import com.tuanphong.yearreviewtft.service.summary.StreakAggregator;
+import com.tuanphong.yearreviewtft.service.summary.SummaryEngine;
+import com.tuanphong.yearreviewtft.service.summary.TraitAggregator;
+import com.tuanphong.yearreviewtft.service.summary.UnitAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary hot path over a synthetic season: full aggregation (what computeAndSave does minus the DB),
+ * match decoding as a full tree vs. streaming to the player's participant, topN and summary serialization.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SummaryBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int games;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private WrappedSummaryService summaryService;
+    private List<String> matchIds;
+    private Map<String, String> payloads;
+    private Map<String, Integer> unitCounts;
+    private Map<String, Object> summary;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<SyntheticMatches.Match> matches = SyntheticMatches.generate(games, 42L);
+        payloads = SyntheticMatches.byMatchId(matches);
+        matchIds = List.copyOf(payloads.keySet());
+
+        SummaryEngine engine = new SummaryEngine(List.of(
+                new PlacementAggregator(),
+                new TraitAggregator(),
+                new AugmentAggregator(),
+                new UnitAggregator(),
+                new BestWorstAggregator(),
+                new MonthlyAggregator(),
+                new StreakAggregator(),
+                new CompAggregator()
+        ));
+        // repositories are not touched by summarize()
+        summaryService = new WrappedSummaryService(null, null, null, objectMapper, engine, event -> { }, null, null, null, null, null);
+
+        summary = aggregate();
+
+        // a wide count map, like units/augments over several sets
+        unitCounts = new HashMap<>();
+        for (int i = 0; i < Math.max(100, games / 5); i++) unitCounts.put("TFT_Unit_" + i, (i * 7919) % 997);
+    }
+
+    @Benchmark
+    public Map<String, Object> aggregate() {
+        return summaryService.summarize(SyntheticMatches.PLAYER_PUUID, 2025, matchIds,
+                id -> Optional.ofNullable(payloads.get(id)));
+    }
+
+    @Benchmark
+    public void decodeTree(Blackhole bh) throws Exception {
+        for (String json : payloads.values()) {
+            JsonNode root = objectMapper.readTree(json);
+            for (JsonNode p : root.path("info").path("participants")) {
+                if (SyntheticMatches.PLAYER_PUUID.equals(p.path("puuid").asText())) {
+                    bh.consume(p);
+                    break;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void decodeStreaming(Blackhole bh) throws Exception {
+        for (String json : payloads.values()) {
+            bh.consume(streamToPlayer(json));
+        }
+    }
+
+    @Benchmark
+    public Object topN() {
+        return Aggregators.topN(unitCounts, 10);
+    }
+
+    @Benchmark
+    public String serializeSummary() throws Exception {
+        return objectMapper.writeValueAsString(summary);
+    }
+
+    /**
+     * Skips metadata and builds a tree only for participant objects, returning the player's one.
+     */
+    private JsonNode streamToPlayer(String json) throws Exception {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (!"info".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String infoField = parser.currentName();
+                    parser.nextToken();
+                    if (!"participants".equals(infoField)) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        JsonNode p = parser.readValueAsTree();
+                        if (SyntheticMatches.PLAYER_PUUID.equals(p.path("puuid").asText())) return p;
+                    }
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+}
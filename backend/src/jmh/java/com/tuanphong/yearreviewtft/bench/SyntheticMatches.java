@@ -0,0 +1,171 @@
+package com.tuanphong.yearreviewtft.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic generator of Riot TFT match-v1 payloads (8 participants, traits, units with items,
+ * augments, companion, missions) sized like the real thing (~20-30 KB each).
+ */
+public final class SyntheticMatches {
+
+    public static final String PLAYER_PUUID = "bench-player-puuid-000000000000000000000000000000000000000000000000000000000000000000000000";
+
+    private static final String[] TRAITS = {
+            "TFT14_Bruiser", "TFT14_Marksman", "TFT14_Swift", "TFT14_Techie", "TFT14_Vanguard", "TFT14_Strong",
+            "TFT14_Cyberboss", "TFT14_Armorclad", "TFT14_Controller", "TFT14_Immortal", "TFT14_Suits",
+            "TFT14_StreetDemon", "TFT14_Thirsty", "TFT14_AnimaSquad", "TFT14_Divinicorp", "TFT14_EdgeRunner",
+            "TFT14_BallisTek", "TFT14_Overlord", "TFT14_Virus", "TFT14_Netgod"
+    };
+
+    private static final String[] UNITS = {
+            "TFT14_Jax", "TFT14_Zyra", "TFT14_Vi", "TFT14_Kindred", "TFT14_Shaco", "TFT14_Kogmaw", "TFT14_Morgana",
+            "TFT14_Naafiri", "TFT14_Jinx", "TFT14_Ekko", "TFT14_Rengar", "TFT14_Annie", "TFT14_Aphelios",
+            "TFT14_Brand", "TFT14_Zeri", "TFT14_Samira", "TFT14_Urgot", "TFT14_Viego", "TFT14_Renekton",
+            "TFT14_Garen", "TFT14_Kobuko", "TFT14_Leblanc", "TFT14_Xayah", "TFT14_Galio", "TFT14_Sylas"
+    };
+
+    private static final String[] ITEMS = {
+            "TFT_Item_InfinityEdge", "TFT_Item_GuinsoosRageblade", "TFT_Item_WarmogsArmor", "TFT_Item_Bloodthirster",
+            "TFT_Item_JeweledGauntlet", "TFT_Item_GargoyleStoneplate", "TFT_Item_SpearOfShojin",
+            "TFT_Item_TitansResolve", "TFT_Item_Redemption", "TFT_Item_LastWhisper"
+    };
+
+    private static final String[] AUGMENTS = {
+            "TFT14_Augment_CyberUplink", "TFT9_Augment_HealingOrbsI", "TFT6_Augment_TradeSector",
+            "TFT14_Augment_StreetDemonCrest", "TFT9_Augment_BuildingACollection", "TFT14_Augment_Overclock"
+    };
+
+    public record Match(String matchId, String payloadJson) {}
+
+    private SyntheticMatches() {}
+
+    public static List<Match> generate(int games, long seed) {
+        ObjectMapper mapper = new ObjectMapper();
+        Random rnd = new Random(seed);
+        long start = ZonedDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        long step = 365L * 24 * 3600 * 1000 / Math.max(1, games);
+
+        List<Match> out = new ArrayList<>(games);
+        for (int g = 0; g < games; g++) {
+            String matchId = "EUW1_" + (7_000_000_000L + g);
+            long time = start + g * step + rnd.nextInt(3_600_000);
+            try {
+                out.add(new Match(matchId, mapper.writeValueAsString(match(mapper, rnd, matchId, time))));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return out;
+    }
+
+    public static Map<String, String> byMatchId(List<Match> matches) {
+        Map<String, String> m = new LinkedHashMap<>();
+        for (Match match : matches) m.put(match.matchId(), match.payloadJson());
+        return m;
+    }
+
+    private static ObjectNode match(ObjectMapper mapper, Random rnd, String matchId, long time) {
+        List<Integer> placements = new ArrayList<>(List.of(1, 2, 3, 4, 5, 6, 7, 8));
+        Collections.shuffle(placements, rnd);
+
+        List<String> puuids = new ArrayList<>();
+        int playerSlot = rnd.nextInt(8);
+        for (int i = 0; i < 8; i++) {
+            puuids.add(i == playerSlot ? PLAYER_PUUID : String.format("bench-lobby-%04d-%s", rnd.nextInt(2000), "x".repeat(60)));
+        }
+
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode metadata = root.putObject("metadata");
+        metadata.put("data_version", "6");
+        metadata.put("match_id", matchId);
+        ArrayNode metaParticipants = metadata.putArray("participants");
+        puuids.forEach(metaParticipants::add);
+
+        ObjectNode info = root.putObject("info");
+        info.put("endOfGameResult", "GameComplete");
+        info.put("gameCreation", time - 2_000_000);
+        info.put("gameId", Long.parseLong(matchId.substring(5)));
+        info.put("game_datetime", time);
+        info.put("game_length", 1800 + rnd.nextDouble() * 900);
+        info.put("game_version", "Linux Version 15.6.665.1234 (Mar 20 2025/14:00:00) [PUBLIC] <Releases/15.6>");
+        info.put("mapId", 22);
+        ArrayNode participants = info.putArray("participants");
+        for (int i = 0; i < 8; i++) {
+            participants.add(participant(mapper, rnd, puuids.get(i), placements.get(i)));
+        }
+        info.put("queue_id", 1100);
+        info.put("queueId", 1100);
+        info.put("tft_game_type", "standard");
+        info.put("tft_set_core_name", "TFTSet14");
+        info.put("tft_set_number", 14);
+        return root;
+    }
+
+    private static ObjectNode participant(ObjectMapper mapper, Random rnd, String puuid, int placement) {
+        ObjectNode p = mapper.createObjectNode();
+        ArrayNode augments = p.putArray("augments");
+        for (int i = 0; i < 3; i++) augments.add(AUGMENTS[rnd.nextInt(AUGMENTS.length)]);
+
+        ObjectNode companion = p.putObject("companion");
+        companion.put("content_ID", "c7b1f5b2-" + rnd.nextInt(10_000));
+        companion.put("item_ID", rnd.nextInt(50_000));
+        companion.put("skin_ID", rnd.nextInt(50));
+        companion.put("species", "PetChibiJinx");
+
+        p.put("gold_left", rnd.nextInt(placement <= 2 ? 20 : 60));
+        p.put("last_round", 20 + (8 - placement) * 3 + rnd.nextInt(3));
+        p.put("level", Math.min(10, 6 + (9 - placement) / 2 + rnd.nextInt(2)));
+
+        ObjectNode missions = p.putObject("missions");
+        for (String k : new String[]{"Assists", "DamageDealt", "DamageDealtToObjectives", "GoldEarned", "Kills",
+                "PhysicalDamageDealt", "TotalDamageDealt", "TotalHeal", "VisionScore"}) {
+            missions.put(k, rnd.nextInt(100_000));
+        }
+
+        p.put("placement", placement);
+        p.put("players_eliminated", placement <= 3 ? rnd.nextInt(3) : 0);
+        p.put("puuid", puuid);
+        p.put("riotIdGameName", "Player" + rnd.nextInt(10_000));
+        p.put("riotIdTagline", "EUW");
+        p.put("time_eliminated", 1500 + rnd.nextDouble() * 1000);
+        p.put("total_damage_to_players", rnd.nextInt(200));
+
+        ArrayNode traits = p.putArray("traits");
+        int traitCount = 7 + rnd.nextInt(5);
+        for (int i = 0; i < traitCount; i++) {
+            ObjectNode t = traits.addObject();
+            int units = 1 + rnd.nextInt(6);
+            t.put("name", TRAITS[rnd.nextInt(TRAITS.length)]);
+            t.put("num_units", units);
+            t.put("style", units >= 2 ? 1 + rnd.nextInt(3) : 0);
+            t.put("tier_current", units >= 2 ? 1 + rnd.nextInt(2) : 0);
+            t.put("tier_total", 3);
+        }
+
+        ArrayNode units = p.putArray("units");
+        int unitCount = 7 + rnd.nextInt(3);
+        for (int i = 0; i < unitCount; i++) {
+            ObjectNode u = units.addObject();
+            u.put("character_id", UNITS[rnd.nextInt(UNITS.length)]);
+            ArrayNode items = u.putArray("itemNames");
+            int itemCount = rnd.nextInt(4);
+            for (int k = 0; k < itemCount; k++) items.add(ITEMS[rnd.nextInt(ITEMS.length)]);
+            u.put("name", "");
+            u.put("rarity", rnd.nextInt(7));
+            u.put("tier", 1 + rnd.nextInt(3));
+        }
+        p.put("win", placement <= 4);
+        return p;
+    }
+}
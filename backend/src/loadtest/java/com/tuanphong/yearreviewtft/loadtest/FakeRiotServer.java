@@ -0,0 +1,302 @@
+package com.tuanphong.yearreviewtft.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process stand-in for the Riot regional host: account-v1 by Riot ID and tft-match-v1 (IDs by puuid, match
+ * by ID) over a generated world of {@code players} load-test players ({@code load<i>#LT}).
+ * <p>
+ * Each player has {@code gamesPerPlayer} matches; a {@code lobbyOverlap} fraction of them are lobbies shared
+ * with other load-test players (as with friends or a stack of streamers), the rest is filled with strangers.
+ * Every answer is delayed by {@code latencyMs}; requests above {@code ratePerSecond} (0 = unlimited) or a random
+ * {@code rateLimitedFraction} of them get a 429 with Retry-After, like the real rate limiter.
+ */
+final class FakeRiotServer implements AutoCloseable {
+
+    private static final String[] TRAITS = {
+            "TFT14_Bruiser", "TFT14_Marksman", "TFT14_Swift", "TFT14_Techie", "TFT14_Vanguard", "TFT14_Strong",
+            "TFT14_Cyberboss", "TFT14_Armorclad", "TFT14_Controller", "TFT14_Immortal", "TFT14_Suits",
+            "TFT14_StreetDemon", "TFT14_Thirsty", "TFT14_AnimaSquad", "TFT14_Divinicorp", "TFT14_EdgeRunner"
+    };
+    private static final String[] UNITS = {
+            "TFT14_Jax", "TFT14_Zyra", "TFT14_Vi", "TFT14_Kindred", "TFT14_Shaco", "TFT14_Kogmaw", "TFT14_Morgana",
+            "TFT14_Naafiri", "TFT14_Jinx", "TFT14_Ekko", "TFT14_Rengar", "TFT14_Annie", "TFT14_Aphelios",
+            "TFT14_Brand", "TFT14_Zeri", "TFT14_Samira", "TFT14_Urgot", "TFT14_Viego", "TFT14_Renekton"
+    };
+    private static final String[] AUGMENTS = {
+            "TFT14_Augment_CyberUplink", "TFT9_Augment_HealingOrbsI", "TFT6_Augment_TradeSector",
+            "TFT14_Augment_StreetDemonCrest", "TFT9_Augment_BuildingACollection", "TFT14_Augment_Overclock"
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final int year;
+    private final long latencyMs;
+    private final int ratePerSecond;
+    private final double rateLimitedFraction;
+
+    private final Map<String, List<String>> matchIdsByPuuid = new HashMap<>();
+    private final Map<String, List<String>> participantsByMatch = new HashMap<>();
+
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final LongAdder rateLimited = new LongAdder();
+    private final AtomicLong windowSecond = new AtomicLong();
+    private final AtomicLong windowCount = new AtomicLong();
+
+    FakeRiotServer(int players, int gamesPerPlayer, double lobbyOverlap, int year,
+                   long latencyMs, int ratePerSecond, double rateLimitedFraction) throws IOException {
+        this.year = year;
+        this.latencyMs = latencyMs;
+        this.ratePerSecond = ratePerSecond;
+        this.rateLimitedFraction = rateLimitedFraction;
+        buildWorld(players, gamesPerPlayer, lobbyOverlap);
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    static String riotId(int player) {
+        return "load" + player + "#LT";
+    }
+
+    static String puuid(int player) {
+        return String.format("load-puuid-%06d-%s", player, "x".repeat(64));
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    Map<String, Long> calls() {
+        Map<String, Long> out = new HashMap<>();
+        calls.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    long rateLimited() {
+        return rateLimited.sum();
+    }
+
+    int matches() {
+        return participantsByMatch.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    // ---------------- world ----------------
+
+    private void buildWorld(int players, int gamesPerPlayer, double lobbyOverlap) {
+        Random rnd = new Random(42);
+        for (int i = 0; i < players; i++) matchIdsByPuuid.put(puuid(i), new ArrayList<>());
+
+        // shared lobbies: up to 8 neighbouring load-test players each, so everyone gets ~overlap * games
+        int perLobby = Math.min(8, players);
+        int sharedLobbies = perLobby < 2 ? 0
+                : (int) Math.ceil((double) players * gamesPerPlayer * lobbyOverlap / perLobby);
+        long nextId = 7_100_000_000L;
+        for (int m = 0; m < sharedLobbies; m++) {
+            Set<String> lobby = new LinkedHashSet<>();
+            int offset = rnd.nextInt(players);
+            for (int k = 0; k < perLobby; k++) lobby.add(puuid((offset + k) % players)); // a friend group
+            addMatch("EUW1_" + nextId++, new ArrayList<>(lobby), rnd);
+        }
+
+        // own games with strangers up to gamesPerPlayer
+        for (int i = 0; i < players; i++) {
+            String p = puuid(i);
+            while (matchIdsByPuuid.get(p).size() < gamesPerPlayer) {
+                List<String> lobby = new ArrayList<>(List.of(p));
+                while (lobby.size() < 8) lobby.add(String.format("stranger-%08d-%s", rnd.nextInt(100_000_000), "y".repeat(64)));
+                addMatch("EUW1_" + nextId++, lobby, rnd);
+            }
+        }
+    }
+
+    private void addMatch(String matchId, List<String> lobby, Random rnd) {
+        Collections.shuffle(lobby, rnd);
+        participantsByMatch.put(matchId, lobby);
+        for (String p : lobby) {
+            List<String> ids = matchIdsByPuuid.get(p);
+            if (ids != null) ids.add(matchId);
+        }
+    }
+
+    // ---------------- HTTP ----------------
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (latencyMs > 0) Thread.sleep(latencyMs);
+
+            String path = ex.getRequestURI().getPath();
+            String endpoint = path.startsWith("/riot/account/") ? "account"
+                    : path.endsWith("/ids") ? "match-ids"
+                    : path.startsWith("/tft/match/v1/matches/") ? "match"
+                    : "other";
+            calls.computeIfAbsent(endpoint, k -> new LongAdder()).increment();
+
+            if (ratePerSecond > 0) {
+                ex.getResponseHeaders().add("X-App-Rate-Limit", ratePerSecond + ":1");
+                ex.getResponseHeaders().add("X-App-Rate-Limit-Count", windowCount.get() + 1 + ":1");
+            }
+            if (overLimit()) {
+                rateLimited.increment();
+                ex.getResponseHeaders().add("Retry-After", "1");
+                ex.sendResponseHeaders(429, -1);
+                return;
+            }
+
+            Object body = switch (endpoint) {
+                case "account" -> account(path);
+                case "match-ids" -> matchIds(path, ex.getRequestURI().getRawQuery());
+                case "match" -> match(path.substring("/tft/match/v1/matches/".length()));
+                default -> null;
+            };
+            if (body == null) {
+                ex.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            byte[] bytes = mapper.writeValueAsBytes(body);
+            ex.getResponseHeaders().add("Content-Type", "application/json");
+            ex.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean overLimit() {
+        if (rateLimitedFraction > 0 && ThreadLocalRandom.current().nextDouble() < rateLimitedFraction) return true;
+        if (ratePerSecond <= 0) return false;
+
+        long second = System.currentTimeMillis() / 1000;
+        long current = windowSecond.get();
+        if (current != second && windowSecond.compareAndSet(current, second)) windowCount.set(0);
+        return windowCount.incrementAndGet() > ratePerSecond;
+    }
+
+    private Object account(String path) {
+        // /riot/account/v1/accounts/by-riot-id/{gameName}/{tagLine}
+        String[] parts = path.split("/");
+        String gameName = URLDecoder.decode(parts[parts.length - 2], StandardCharsets.UTF_8);
+        if (!gameName.startsWith("load")) return null;
+        int player;
+        try {
+            player = Integer.parseInt(gameName.substring(4));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (!matchIdsByPuuid.containsKey(puuid(player))) return null;
+        return Map.of("puuid", puuid(player), "gameName", gameName, "tagLine", "LT");
+    }
+
+    private Object matchIds(String path, String query) {
+        // /tft/match/v1/matches/by-puuid/{puuid}/ids?start=&count=
+        String[] parts = path.split("/");
+        List<String> ids = matchIdsByPuuid.getOrDefault(parts[parts.length - 2], List.of());
+
+        int start = 0;
+        int count = 20;
+        if (query != null) {
+            for (String kv : query.split("&")) {
+                String[] p = kv.split("=", 2);
+                if (p.length < 2) continue;
+                if (p[0].equals("start")) start = Integer.parseInt(p[1]);
+                if (p[0].equals("count")) count = Integer.parseInt(p[1]);
+            }
+        }
+        if (start >= ids.size()) return List.of();
+        return ids.subList(start, Math.min(ids.size(), start + count));
+    }
+
+    private Object match(String matchId) {
+        List<String> lobby = participantsByMatch.get(matchId);
+        if (lobby == null) return null;
+
+        Random rnd = new Random(matchId.hashCode());
+        long yearStart = ZonedDateTime.of(year, 1, 1, 0, 0, 0, 0, ZoneId.of("Europe/Berlin")).toInstant().toEpochMilli();
+        long time = yearStart + (long) (rnd.nextDouble() * 360L * 24 * 3600 * 1000);
+
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode metadata = root.putObject("metadata");
+        metadata.put("data_version", "6");
+        metadata.put("match_id", matchId);
+        ArrayNode metaParticipants = metadata.putArray("participants");
+        lobby.forEach(metaParticipants::add);
+
+        ObjectNode info = root.putObject("info");
+        info.put("game_datetime", time);
+        info.put("game_length", 1800 + rnd.nextDouble() * 900);
+        info.put("queue_id", 1100);
+        info.put("tft_set_number", 14);
+        ArrayNode participants = info.putArray("participants");
+        for (int i = 0; i < lobby.size(); i++) {
+            participants.add(participant(rnd, lobby.get(i), i + 1));
+        }
+        return root;
+    }
+
+    private ObjectNode participant(Random rnd, String puuid, int placement) {
+        ObjectNode p = mapper.createObjectNode();
+        ArrayNode augments = p.putArray("augments");
+        for (int i = 0; i < 3; i++) augments.add(AUGMENTS[rnd.nextInt(AUGMENTS.length)]);
+        p.put("gold_left", rnd.nextInt(60));
+        p.put("last_round", 20 + (8 - placement) * 3);
+        p.put("level", Math.min(10, 6 + (9 - placement) / 2));
+        p.put("placement", placement);
+        p.put("puuid", puuid);
+
+        ArrayNode traits = p.putArray("traits");
+        for (int i = 0; i < 8; i++) {
+            ObjectNode t = traits.addObject();
+            int units = 1 + rnd.nextInt(6);
+            t.put("name", TRAITS[rnd.nextInt(TRAITS.length)]);
+            t.put("num_units", units);
+            t.put("style", units >= 2 ? 1 + rnd.nextInt(3) : 0);
+            t.put("tier_current", units >= 2 ? 1 : 0);
+            t.put("tier_total", 3);
+        }
+        ArrayNode units = p.putArray("units");
+        for (int i = 0; i < 8; i++) {
+            ObjectNode u = units.addObject();
+            u.put("character_id", UNITS[rnd.nextInt(UNITS.length)]);
+            u.putArray("itemNames");
+            u.put("rarity", rnd.nextInt(7));
+            u.put("tier", 1 + rnd.nextInt(3));
+        }
+        p.put("win", placement <= 4);
+        return p;
+    }
+}
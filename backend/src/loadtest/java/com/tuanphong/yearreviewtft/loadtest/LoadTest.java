@@ -0,0 +1,264 @@
+package com.tuanphong.yearreviewtft.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuanphong.yearreviewtft.YearReviewTftApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load test: boots the application against an embedded Postgres (or {@code dbUrl}) and a
+ * {@link FakeRiotServer}, then lets {@code players} distinct users arrive at {@code arrivalRate} per second.
+ * Each one posts /api/wrapped/request (honouring 429/503 + Retry-After), polls /status every {@code pollMs}
+ * until the job ends and then loads the summary {@code summaryViews} times.
+ * <p>
+ * Reports throughput, time-to-summary percentiles (request sent until the first summary is loaded), summary
+ * GET latency and Riot calls per player. Run:
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="players=200 arrivalRate=10 riotRatePerSecond=20"
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new TreeMap<>(Map.ofEntries(
+            Map.entry("players", "50"),
+            Map.entry("gamesPerPlayer", "150"),
+            Map.entry("lobbyOverlap", "0.2"),
+            Map.entry("year", "2025"),
+            Map.entry("arrivalRate", "5"),          // new users per second
+            Map.entry("pollMs", "1000"),
+            Map.entry("summaryViews", "3"),
+            Map.entry("riotLatencyMs", "40"),
+            Map.entry("riotRatePerSecond", "0"),    // 0 = no limit; Riot production keys: 500 per 10 s
+            Map.entry("riot429Fraction", "0"),
+            Map.entry("workers", "2"),              // jobs.workers
+            Map.entry("timeoutMinutes", "15"),
+            Map.entry("dbUrl", "")                  // empty: embedded Postgres
+    ));
+
+    private final Map<String, String> opts;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final ConcurrentLinkedQueue<Long> timeToSummaryMs = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> summaryGetMs = new ConcurrentLinkedQueue<>();
+    private final LongAdder done = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder admissionRejections = new LongAdder();
+    private final LongAdder statusPolls = new LongAdder();
+
+    private String appUrl;
+
+    private LoadTest(Map<String, String> opts) {
+        this.opts = opts;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new TreeMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            if (kv.length != 2 || !DEFAULTS.containsKey(kv[0])) {
+                System.err.println("Unknown option '" + arg + "'. Options (key=value): " + DEFAULTS);
+                System.exit(2);
+            }
+            opts.put(kv[0], kv[1]);
+        }
+        new LoadTest(opts).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        int players = intOpt("players");
+        int year = intOpt("year");
+
+        EmbeddedPostgres embedded = null;
+        String dbUrl = opts.get("dbUrl");
+        if (dbUrl.isBlank()) {
+            embedded = EmbeddedPostgres.builder().start();
+            dbUrl = embedded.getJdbcUrl("postgres", "postgres");
+        }
+
+        try (FakeRiotServer riot = new FakeRiotServer(players, intOpt("gamesPerPlayer"),
+                doubleOpt("lobbyOverlap"), year, intOpt("riotLatencyMs"),
+                intOpt("riotRatePerSecond"), doubleOpt("riot429Fraction"))) {
+
+            ConfigurableApplicationContext app = startApp(dbUrl, riot.baseUrl());
+            try {
+                appUrl = "http://127.0.0.1:" + ((WebServerApplicationContext) app).getWebServer().getPort();
+                System.out.printf("app %s, fake Riot %s (%d matches), %s%n", appUrl, riot.baseUrl(), riot.matches(), opts);
+
+                long started = System.nanoTime();
+                drive(players, year);
+                double wallSeconds = (System.nanoTime() - started) / 1e9;
+
+                report(players, wallSeconds, riot);
+            } finally {
+                app.close();
+            }
+        } finally {
+            if (embedded != null) embedded.close();
+        }
+    }
+
+    private ConfigurableApplicationContext startApp(String dbUrl, String riotUrl) {
+        Map<String, Object> props = new HashMap<>();
+        props.put("server.port", 0);
+        props.put("spring.datasource.url", dbUrl);
+        props.put("spring.datasource.username", "postgres");
+        props.put("spring.datasource.password", "");
+        props.put("riot.api.key", "loadtest");
+        props.put("riot.api.base-url", riotUrl);
+        props.put("jobs.workers", intOpt("workers"));
+        // every simulated user comes from 127.0.0.1
+        props.put("jobs.per-client-per-minute", Integer.MAX_VALUE);
+        props.put("spring.main.banner-mode", "off");
+        props.put("logging.level.root", "WARN");
+        // duplicate match_cache inserts of lobbies shared by two running jobs are expected and handled
+        props.put("logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper", "OFF");
+
+        // as command-line args: they win over application.yml, default properties would not
+        String[] args = props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new);
+        return new SpringApplicationBuilder(YearReviewTftApplication.class).run(args);
+    }
+
+    private void drive(int players, int year) throws InterruptedException {
+        long intervalNanos = (long) (1e9 / doubleOpt("arrivalRate"));
+        long first = System.nanoTime();
+
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < players; i++) {
+                long wait = first + i * intervalNanos - System.nanoTime();
+                if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+
+                int player = i;
+                users.submit(() -> user(player, year));
+            }
+            users.shutdown();
+            if (!users.awaitTermination(intOpt("timeoutMinutes"), TimeUnit.MINUTES)) {
+                System.out.println("timeout: users still waiting are not counted");
+                users.shutdownNow();
+            }
+        }
+    }
+
+    /** One user: request, poll until the job ends, view the summary. */
+    private void user(int player, int year) {
+        long started = System.nanoTime();
+        try {
+            String body = mapper.writeValueAsString(Map.of(
+                    "riotId", FakeRiotServer.riotId(player), "platform", "EUW1", "year", year));
+
+            String puuid;
+            while (true) {
+                HttpResponse<String> resp = http.send(HttpRequest.newBuilder(URI.create(appUrl + "/api/wrapped/request"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(), HttpResponse.BodyHandlers.ofString());
+                if (resp.statusCode() == 429 || resp.statusCode() == 503) {
+                    admissionRejections.increment();
+                    long retryAfter = resp.headers().firstValueAsLong("Retry-After").orElse(1);
+                    Thread.sleep(retryAfter * 1000);
+                    continue;
+                }
+                if (resp.statusCode() != 200) throw new IllegalStateException("request: HTTP " + resp.statusCode());
+                puuid = mapper.readTree(resp.body()).path("puuid").asText();
+                break;
+            }
+
+            String query = "?puuid=" + puuid + "&year=" + year;
+            while (true) {
+                statusPolls.increment();
+                JsonNode status = getJson("/api/wrapped/status" + query);
+                String state = status.path("state").asText();
+                if (status.path("summaryReady").asBoolean() || "DONE".equals(state)) break;
+                if ("FAILED".equals(state)) throw new IllegalStateException(status.path("message").asText());
+                Thread.sleep(intOpt("pollMs"));
+            }
+
+            for (int v = 0; v < Math.max(1, intOpt("summaryViews")); v++) {
+                long t = System.nanoTime();
+                JsonNode summary = getJson("/api/wrapped" + query);
+                if (summary.path("ready").isBoolean() && !summary.path("ready").asBoolean()) {
+                    throw new IllegalStateException("summary not ready after DONE");
+                }
+                summaryGetMs.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t));
+                if (v == 0) timeToSummaryMs.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            }
+            done.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failed.increment();
+            System.out.println("player " + player + " failed: " + e.getMessage());
+        }
+    }
+
+    private JsonNode getJson(String path) throws Exception {
+        HttpResponse<String> resp = http.send(HttpRequest.newBuilder(URI.create(appUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (resp.statusCode() != 200) throw new IllegalStateException(path + ": HTTP " + resp.statusCode());
+        return mapper.readTree(resp.body());
+    }
+
+    private void report(int players, double wallSeconds, FakeRiotServer riot) {
+        Map<String, Long> calls = riot.calls();
+        long riotCalls = calls.values().stream().mapToLong(Long::longValue).sum();
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "users          %d done, %d failed, %d admission rejections (429/503)%n",
+                done.sum(), failed.sum(), admissionRejections.sum());
+        System.out.printf(Locale.ROOT, "wall           %.1f s, throughput %.2f summaries/s%n",
+                wallSeconds, done.sum() / wallSeconds);
+        System.out.println("time-to-summary " + percentiles(timeToSummaryMs));
+        System.out.println("summary GET    " + percentiles(summaryGetMs));
+        System.out.printf(Locale.ROOT, "status polls   %d (%.1f per user)%n",
+                statusPolls.sum(), (double) statusPolls.sum() / players);
+        System.out.printf(Locale.ROOT, "riot calls     %d (%.1f per user) %s, %d answered 429%n",
+                riotCalls, (double) riotCalls / players, new TreeMap<>(calls), riot.rateLimited());
+    }
+
+    private static String percentiles(ConcurrentLinkedQueue<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        if (sorted.isEmpty()) return "n/a";
+        Collections.sort(sorted);
+        return String.format(Locale.ROOT, "p50 %d ms, p95 %d ms, p99 %d ms, max %d ms (n=%d)",
+                nearestRank(sorted, 0.50), nearestRank(sorted, 0.95), nearestRank(sorted, 0.99),
+                sorted.get(sorted.size() - 1), sorted.size());
+    }
+
+    private static long nearestRank(List<Long> sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, idx)));
+    }
+
+    private int intOpt(String key) {
+        return Integer.parseInt(opts.get(key));
+    }
+
+    private double doubleOpt(String key) {
+        return Double.parseDouble(opts.get(key));
+    }
+}
@@ -0,0 +1,41 @@
+package com.tuanphong.yearreviewtft.api;
+
+import com.tuanphong.yearreviewtft.service.AdmissionRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    /**
+     * 429 / 503 from job admission, with Retry-After and an estimated start for a job queued now.
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<Map<String, Object>> admissionRejected(AdmissionRejectedException e) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", e.getMessage());
+        body.put("retryAfterSeconds", e.retryAfterSeconds());
+        body.put("estimatedStartAt", e.estimatedStartAt().toString());
+        body.put("queueDepth", e.queueDepth());
+
+        return ResponseEntity.status(e.status())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.retryAfterSeconds()))
+                .body(body);
+    }
+
+    /**
+     * A Riot call exceeded riot.api.request-timeout.
+     */
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Map<String, Object>> riotTimeout(TimeoutException e) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(Map.of("error", "Riot API did not answer in time, please retry."));
+    }
+}
@@ -0,0 +1,30 @@
+package com.tuanphong.yearreviewtft.api;
+
+import com.tuanphong.yearreviewtft.service.JobRunRecorder;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/jobs")
+public class JobRunController {
+
+    private final JobRunRecorder jobRunRecorder;
+
+    public JobRunController(JobRunRecorder jobRunRecorder) {
+        this.jobRunRecorder = jobRunRecorder;
+    }
+
+    /**
+     * Where job wall-clock time goes: p50/p95 per stage and per job, Riot calls, 429 retries, cache hits and
+     * bytes stored, over the jobs started in the last {@code hours}.
+     */
+    @GetMapping(value = "/stages", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> stages(@RequestParam(defaultValue = "24") @Min(1) @Max(24 * 90) int hours) {
+        return jobRunRecorder.stageStats(Duration.ofHours(hours));
+    }
+}
@@ -3,6 +3,7 @@ package com.tuanphong.yearreviewtft.api;
 import com.tuanphong.yearreviewtft.api.dto.RiotAccountResponse;
 import com.tuanphong.yearreviewtft.riot.TftMatchService;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api")
@@ -15,9 +16,11 @@ public class ResolveController {
         this.tftMatchService = tftMatchService;
     }
 
+    // async: the request thread is released while Riot answers
     @GetMapping("/resolve")
-    public RiotAccountResponse resolve(@RequestParam String riotId) {
-        // expects: Name#TAG
-        return tftMatchService.resolveRiotId(riotId);
+    public Mono<RiotAccountResponse> resolve(@RequestParam String riotId,
+                                             @RequestParam(required = false) String platform) {
+        // expects: Name#TAG; the platform (EUW1, NA1, ...) picks the routing region, Europe if absent
+        return tftMatchService.resolveRiotId(riotId, platform);
     }
 }
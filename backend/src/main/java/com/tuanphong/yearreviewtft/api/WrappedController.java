@@ -1,56 +1,169 @@
 package com.tuanphong.yearreviewtft.api;
 
+import com.tuanphong.yearreviewtft.api.dto.WrappedBatchRequest;
+import com.tuanphong.yearreviewtft.api.dto.WrappedBatchResponse;
 import com.tuanphong.yearreviewtft.api.dto.WrappedRequest;
 import com.tuanphong.yearreviewtft.api.dto.WrappedRequestResponse;
 import com.tuanphong.yearreviewtft.api.dto.WrappedStatusResponse;
+import com.tuanphong.yearreviewtft.service.JobCancellation;
+import com.tuanphong.yearreviewtft.service.RangeSummaryService;
+import com.tuanphong.yearreviewtft.service.SummaryDocument;
 import com.tuanphong.yearreviewtft.service.WrappedService;
+import com.tuanphong.yearreviewtft.service.summary.Aggregators;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/wrapped")
 public class WrappedController {
 
     private final WrappedService wrappedService;
+    private final RangeSummaryService rangeSummaryService;
+    private final JobCancellation jobCancellation;
 
-    public WrappedController(WrappedService wrappedService) {
+    public WrappedController(
+            WrappedService wrappedService,
+            RangeSummaryService rangeSummaryService,
+            JobCancellation jobCancellation
+    ) {
         this.wrappedService = wrappedService;
+        this.rangeSummaryService = rangeSummaryService;
+        this.jobCancellation = jobCancellation;
     }
 
     /**
      * Starts generating (async) the wrapped for a Riot ID + year.
-     * Returns immediately with a job id and resolved puuid.
+     * Returns immediately with a job id and resolved puuid (async: no request thread waits on Riot).
+     * 429 / 503 with Retry-After when the client or the job queue is over its limit.
      */
     @PostMapping(value = "/request", produces = MediaType.APPLICATION_JSON_VALUE)
-    public WrappedRequestResponse request(@RequestBody @Valid WrappedRequest req) {
-        return wrappedService.start(req);
+    public Mono<WrappedRequestResponse> request(@RequestBody @Valid WrappedRequest req, HttpServletRequest http) {
+        return wrappedService.start(req, http.getRemoteAddr());
+    }
+
+    /**
+     * Starts one shared job for a roster of Riot IDs (up to 25): lobbies the players share are fetched once.
+     * Per-player results; progress via /batch/status or /status.
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<WrappedBatchResponse> batch(@RequestBody @Valid WrappedBatchRequest req, HttpServletRequest http) {
+        return wrappedService.startBatch(req, http.getRemoteAddr());
+    }
+
+    /**
+     * Status of several players at once, e.g. /batch/status?year=2025&puuid=a,b,c
+     */
+    @GetMapping(value = "/batch/status", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<WrappedStatusResponse> batchStatus(
+            @RequestParam @NotEmpty @Size(max = WrappedBatchRequest.MAX_PLAYERS) List<String> puuid,
+            @RequestParam int year
+    ) {
+        puuid.forEach(p -> jobCancellation.polled(p, year));
+        return puuid.stream().map(p -> wrappedService.status(p, year)).toList();
     }
 
     /**
-     * Polling endpoint for frontend while wrapped is generating.
+     * Polling endpoint for frontend while wrapped is generating. Polling keeps the job alive: one nobody
+     * polls for jobs.budget.abandon-after is stopped.
      */
     @GetMapping(value = "/status", produces = MediaType.APPLICATION_JSON_VALUE)
     public WrappedStatusResponse status(
             @RequestParam @NotBlank String puuid,
             @RequestParam int year
     ) {
+        jobCancellation.polled(puuid, year);
         return wrappedService.status(puuid, year);
     }
 
     /**
-     * Returns the computed summary JSON (fast).
-     * If not ready, returns 404-ish info payload (or you can throw ResponseStatusException).
+     * Stops the player's running job: no further matches are fetched, the summary is computed from the ones
+     * cached so far (state PARTIAL), or none is made (CANCELLED). Requesting the player again resumes.
+     * Only the client that started the job can stop it: jobId is the one /request returned (batchId of /batch).
+     */
+    @PostMapping(value = "/cancel", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> cancel(
+            @RequestParam @NotBlank String puuid,
+            @RequestParam int year,
+            @RequestParam @NotBlank String jobId
+    ) {
+        return Map.of("puuid", puuid, "year", year, "cancelled", jobCancellation.cancel(puuid, year, jobId));
+    }
+
+    /**
+     * Returns the computed summary JSON (fast): stored bytes from an in-memory cache with a strong ETag,
+     * so repeat views of a shared link get 304 Not Modified.
+     * If not ready, returns a small info payload instead.
      */
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public Map<String, Object> get(
+    public ResponseEntity<?> get(
             @RequestParam @NotBlank String puuid,
             @RequestParam int year
     ) {
-        return wrappedService.getSummary(puuid, year);
+        Optional<SummaryDocument> doc = wrappedService.getSummary(puuid, year);
+        if (doc.isEmpty()) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(wrappedService.summaryNotReady(puuid, year));
+        }
+
+        // If-None-Match is evaluated by Spring against this ETag and answered with 304
+        return ResponseEntity.ok()
+                .eTag(doc.get().etag())
+                .cacheControl(CacheControl.noCache().cachePublic())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(doc.get().json());
+    }
+
+    /**
+     * Player's percentile vs. everyone with a summary for the year (avg placement, games, top 4 rate, traits).
+     */
+    @GetMapping(value = "/percentiles", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> percentiles(
+            @RequestParam @NotBlank String puuid,
+            @RequestParam int year
+    ) {
+        return wrappedService.getPercentiles(puuid, year);
+    }
+
+    /**
+     * Summary over a range of days (Europe/Berlin, both inclusive) across all years the player has requested:
+     * /range?puuid=..&from=2025-04-02&to=2025-07-29 (a set), /range?puuid=..&days=90, or no bounds for the career.
+     * Built from stored monthly aggregates; "monthly" has one point per month, e.g. "2025-01",
+     * unless all games fall in one year.
+     */
+    @GetMapping(value = "/range", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Map<String, Object> range(
+            @RequestParam @NotBlank String puuid,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) @Min(1) @Max(3660) Integer days
+    ) {
+        if (days != null) {
+            to = LocalDate.now(Aggregators.ZONE);
+            from = to.minusDays(days - 1);
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        return rangeSummaryService.summarize(puuid, from, to);
     }
 
     @PostMapping(value = "/recompute", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -0,0 +1,13 @@
+package com.tuanphong.yearreviewtft.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record WrappedBatchRequest(
+        @NotEmpty @Size(max = WrappedBatchRequest.MAX_PLAYERS) List<@Valid WrappedRequest> requests
+) {
+    public static final int MAX_PLAYERS = 25;
+}
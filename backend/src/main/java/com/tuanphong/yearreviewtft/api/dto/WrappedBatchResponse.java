@@ -0,0 +1,13 @@
+package com.tuanphong.yearreviewtft.api.dto;
+
+import java.util.List;
+
+public record WrappedBatchResponse(
+        String batchId, // null if no job had to be started
+        List<Player> players
+) {
+    /**
+     * state: a job state, DONE, FAILED (Riot ID could not be resolved) or DUPLICATE.
+     */
+    public record Player(String riotId, String puuid, int year, String state) {}
+}
@@ -6,6 +6,6 @@ import jakarta.validation.constraints.NotBlank;
 
 public record WrappedRequest(
         @NotBlank String riotId,
-        @NotBlank String platform, // "EUW1" or "EUN1" (we keep it for later rank endpoints)
+        @NotBlank String platform, // "EUW1", "NA1", "KR", ...: picks the Riot routing region (see RiotRegion)
         @Min(2020) @Max(2030) int year
 ) {}
@@ -0,0 +1,135 @@
+package com.tuanphong.yearreviewtft.config;
+
+import com.tuanphong.yearreviewtft.YearReviewTftApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.MergedAnnotation;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * With Spring AOT (-Paot, Dockerfile build arg AOT=true) every {@link ConditionalOnProperty} of the
+ * application is decided at build time. {@link Recorder} stores the values those properties had during
+ * process-aot next to the generated code; on startup of an AOT build this warns about every property whose
+ * runtime value differs, since changing it has no effect until the image is rebuilt with
+ * --build-arg AOT_JVM_ARGUMENTS.
+ */
+@Component
+public class AotConditions {
+
+    private static final Logger log = LoggerFactory.getLogger(AotConditions.class);
+    private static final String RESOURCE = "META-INF/aot-conditions.properties";
+    private static final String UNSET = "";
+
+    private final Environment environment;
+
+    public AotConditions(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warnOnDrift() {
+        ClassPathResource resource = new ClassPathResource(RESOURCE);
+        if (!AotDetector.useGeneratedArtifacts() || !resource.exists()) return;
+
+        Properties built = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            built.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Reading " + RESOURCE, e);
+        }
+
+        List<String> differing = new ArrayList<>();
+        for (String key : new TreeSet<>(built.stringPropertyNames())) {
+            String now = environment.getProperty(key, UNSET);
+            String then = built.getProperty(key);
+            if (!now.equals(then)) differing.add(key + " (built: " + show(then) + ", now: " + show(now) + ")");
+        }
+        if (!differing.isEmpty()) {
+            log.warn("AOT build: beans behind these properties were fixed at build time, runtime values are ignored: {}. "
+                    + "Rebuild with --build-arg AOT_JVM_ARGUMENTS=\"-D<property>=<value> ...\" to change them.",
+                    String.join(", ", differing));
+        }
+    }
+
+    private static String show(String value) {
+        return value.isEmpty() ? "unset" : value;
+    }
+
+    /** Registered in META-INF/spring/aot.factories; runs during process-aot only. */
+    public static class Recorder implements BeanFactoryInitializationAotProcessor {
+
+        @Override
+        public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+            Environment environment = beanFactory.getBean(Environment.class);
+            Properties values = new Properties();
+            for (String key : conditionalProperties()) values.setProperty(key, environment.getProperty(key, UNSET));
+
+            StringWriter out = new StringWriter();
+            try {
+                values.store(out, "@ConditionalOnProperty values at process-aot, see AotConditions");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return (generationContext, code) ->
+                    generationContext.getGeneratedFiles().addResourceFile(RESOURCE, out.toString());
+        }
+
+        /** Property names of every {@link ConditionalOnProperty} on our classes and @Bean methods. */
+        private static List<String> conditionalProperties() {
+            // the scanner's own filter would skip classes whose conditions don't match right now
+            var scanner = new ClassPathScanningCandidateComponentProvider(false) {
+                @Override
+                protected boolean isCandidateComponent(MetadataReader reader) {
+                    AnnotationMetadata m = reader.getAnnotationMetadata();
+                    return m.hasAnnotation(ConditionalOnProperty.class.getName())
+                            || m.hasAnnotatedMethods(ConditionalOnProperty.class.getName());
+                }
+            };
+
+            List<String> keys = new ArrayList<>();
+            for (BeanDefinition candidate : scanner.findCandidateComponents(YearReviewTftApplication.class.getPackageName())) {
+                AnnotationMetadata m = ((AnnotatedBeanDefinition) candidate).getMetadata();
+                Stream.concat(
+                        m.getAnnotations().stream(ConditionalOnProperty.class),
+                        m.getAnnotatedMethods(ConditionalOnProperty.class.getName()).stream()
+                                .flatMap((MethodMetadata method) -> method.getAnnotations().stream(ConditionalOnProperty.class))
+                ).forEach(a -> keys.addAll(names(a)));
+            }
+            return keys;
+        }
+
+        private static List<String> names(MergedAnnotation<ConditionalOnProperty> a) {
+            String prefix = a.getString("prefix");
+            if (!prefix.isEmpty() && !prefix.endsWith(".")) prefix += ".";
+            String[] names = a.getStringArray("name").length > 0 ? a.getStringArray("name") : a.getStringArray("value");
+            List<String> out = new ArrayList<>();
+            for (String name : names) out.add(prefix + name);
+            return out;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Small LRU {@link org.springframework.cache.Cache} for the static resource chain. The default
+ * ConcurrentMapCache would keep one entry per distinct URL ever requested, and every unknown path resolves
+ * to the SPA fallback, so scanners could grow it without limit.
+ */
+class BoundedResourceCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Map<Object, Object> store;
+
+    BoundedResourceCache(String name, int maxEntries) {
+        super(false);
+        this.name = name;
+        this.store = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected synchronized Object lookup(Object key) {
+        return store.get(key);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) return (T) fromStoreValue(cached);
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public synchronized void put(Object key, Object value) {
+        store.put(key, toStoreValue(value));
+    }
+
+    @Override
+    public synchronized void evict(Object key) {
+        store.remove(key);
+    }
+
+    @Override
+    public synchronized void clear() {
+        store.clear();
+    }
+}
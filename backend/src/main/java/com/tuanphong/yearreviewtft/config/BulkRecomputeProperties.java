@@ -0,0 +1,20 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param year        recompute the saved summaries of this year on startup (unset = off)
+ * @param staleOnly   only summaries older than WrappedSummaryService.SUMMARY_VERSION; false recomputes all
+ * @param export      first copy match_cache payloads that are not archived yet into the MatchArchive
+ * @param parallelism players recomputed concurrently
+ * @param perSecond   recomputes started per second at most (0 = unthrottled)
+ */
+@ConfigurationProperties(prefix = "summary.bulk-recompute")
+public record BulkRecomputeProperties(
+        Integer year,
+        @DefaultValue("true") boolean staleOnly,
+        @DefaultValue("true") boolean export,
+        @DefaultValue("4") int parallelism,
+        @DefaultValue("20") double perSecond
+) {}
@@ -0,0 +1,23 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * When a wrapped job stops fetching early (see JobCancellation). A stopped player gets a summary of the matches
+ * fetched so far, flagged as partial.
+ *
+ * @param maxDuration          time a job may spend from its start on a worker
+ * @param maxRiotCallsPerPlayer Riot calls a job may make per player it runs for
+ * @param abandonAfter         a player whose status nobody polled for this long is stopped (user jobs only)
+ * @param checkInterval        how often a running job reads cancel requests and polls of its players
+ */
+@ConfigurationProperties(prefix = "jobs.budget")
+public record JobBudgetProperties(
+        @DefaultValue("15m") Duration maxDuration,
+        @DefaultValue("3000") int maxRiotCallsPerPlayer,
+        @DefaultValue("2m") Duration abandonAfter,
+        @DefaultValue("5s") Duration checkInterval
+) {}
@@ -0,0 +1,25 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Admission control for wrapped jobs (see JobAdmission).
+ *
+ * @param workers              jobs running concurrently
+ * @param queueCapacity        jobs waiting for a worker; beyond that new requests get 503
+ * @param perClientPerMinute   /request and /batch calls per client (IP) and minute; beyond that 429
+ * @param maxInflightRequests  /request and /batch calls being handled at once (each waiting on PUUID
+ *                             resolution); beyond that 503
+ * @param initialJobEstimate   assumed job duration until real ones have been observed
+ */
+@ConfigurationProperties(prefix = "jobs")
+public record JobQueueProperties(
+        @DefaultValue("2") int workers,
+        @DefaultValue("50") int queueCapacity,
+        @DefaultValue("5") int perClientPerMinute,
+        @DefaultValue("16") int maxInflightRequests,
+        @DefaultValue("60s") Duration initialJobEstimate
+) {}
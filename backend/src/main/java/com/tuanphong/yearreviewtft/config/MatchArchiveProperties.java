@@ -0,0 +1,29 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Cold tier of match_cache: local segment files that old, already-summarized payloads are moved to.
+ *
+ * @param enabled      run the scheduled archiver (reads always fall through to existing segments)
+ * @param dir          directory of the segment and index files; must be absolute (a shared, persistent
+ *                     volume) when enabled, since archived rows are deleted from Postgres
+ * @param retainFor    payloads fetched more recently than this stay in Postgres
+ * @param cron         when the archiver runs (Europe/Berlin)
+ * @param batchSize    matches per archive batch / delete transaction
+ * @param segmentSize  a new segment file is started once the current one reaches this size
+ */
+@ConfigurationProperties(prefix = "match-cache.archive")
+public record MatchArchiveProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/match-archive") Path dir,
+        @DefaultValue("30d") Duration retainFor,
+        @DefaultValue("0 0 5 * * *") String cron,
+        @DefaultValue("500") int batchSize,
+        @DefaultValue("256MB") DataSize segmentSize
+) {}
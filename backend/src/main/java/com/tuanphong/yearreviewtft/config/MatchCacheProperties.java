@@ -0,0 +1,18 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param compress         store new payloads as dictionary-deflated bytea instead of jsonb
+ * @param migrateExisting  on startup, train a dictionary (if none yet) and compress existing jsonb rows
+ * @param migrateBatchSize rows per transaction for that migration
+ * @param dictionarySamples payloads sampled when training a dictionary
+ */
+@ConfigurationProperties(prefix = "match-cache")
+public record MatchCacheProperties(
+        @DefaultValue("false") boolean compress,
+        @DefaultValue("false") boolean migrateExisting,
+        @DefaultValue("200") int migrateBatchSize,
+        @DefaultValue("300") int dictionarySamples
+) {}
@@ -0,0 +1,27 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+/**
+ * Background refresh of finished players of the current year while traffic is low (see SummaryPrewarmer).
+ *
+ * @param enabled        run the pre-warmer
+ * @param cron           how often it checks for spare capacity (Europe/Berlin); at most one refresh job per tick
+ * @param offPeakStart   start of the low-traffic window (Europe/Berlin), may wrap past midnight
+ * @param offPeakEnd     end of the low-traffic window
+ * @param playersPerRun  players refreshed by one job
+ * @param staleAfter     players whose match IDs were synced more recently than this are left alone
+ */
+@ConfigurationProperties(prefix = "prewarm")
+public record PrewarmProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0 */2 * * * *") String cron,
+        @DefaultValue("02:00") LocalTime offPeakStart,
+        @DefaultValue("08:00") LocalTime offPeakEnd,
+        @DefaultValue("5") int playersPerRun,
+        @DefaultValue("7d") Duration staleAfter
+) {}
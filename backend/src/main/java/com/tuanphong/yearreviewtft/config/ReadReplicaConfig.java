@@ -0,0 +1,59 @@
+package com.tuanphong.yearreviewtft.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary + read-replica data sources, only when datasource.replica.url is set; otherwise Spring Boot's
+ * single data source from spring.datasource.* is used unchanged.
+ *
+ * The routing source sits behind a LazyConnectionDataSourceProxy so the connection is chosen at the first
+ * statement, after the transaction's read-only flag is known.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties primary, ReadReplicaProperties replica) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName("replica");
+        ds.setDriverClassName(primary.determineDriverClassName());
+        ds.setJdbcUrl(replica.url());
+        ds.setUsername(replica.username() != null ? replica.username() : primary.determineUsername());
+        ds.setPassword(replica.password() != null ? replica.password() : primary.determinePassword());
+        ds.setMaximumPoolSize(replica.maximumPoolSize());
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource) {
+        ReadReplicaRouting routing = new ReadReplicaRouting();
+        routing.setTargetDataSources(Map.of(
+                ReadReplicaRouting.Target.PRIMARY, primaryDataSource,
+                ReadReplicaRouting.Target.REPLICA, replicaDataSource
+        ));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
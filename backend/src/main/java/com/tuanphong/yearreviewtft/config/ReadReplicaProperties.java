@@ -0,0 +1,22 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Optional read-only replica. When url is set, the status, summary and percentile reads go to it (see
+ * ReadReplicaRouting); everything else stays on the primary.
+ *
+ * @param lagWindow how long after a job or summary write reads for that (puuid, year) stay on the primary;
+ *                  tracked per instance (see RecentWrites)
+ */
+@ConfigurationProperties(prefix = "datasource.replica")
+public record ReadReplicaProperties(
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("5s") Duration lagWindow
+) {}
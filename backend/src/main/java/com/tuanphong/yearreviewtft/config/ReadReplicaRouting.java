@@ -0,0 +1,37 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections to the primary unless the current thread opened a {@link #useReplica()} scope inside a
+ * read-only transaction. Only the GET read services open one, so inherited read-only repository methods
+ * (findById, count, ...) called by jobs and background work always see their own writes. Without a
+ * configured replica the scope is a no-op.
+ */
+public class ReadReplicaRouting extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> USE_REPLICA = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Must be opened before the transaction's first statement (connections are fetched lazily).
+     */
+    public static Scope useReplica() {
+        boolean previous = USE_REPLICA.get();
+        USE_REPLICA.set(true);
+        return () -> USE_REPLICA.set(previous);
+    }
+
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && USE_REPLICA.get() ? Target.REPLICA : Target.PRIMARY;
+    }
+}
@@ -1,6 +1,25 @@
 package com.tuanphong.yearreviewtft.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param key            the API key, if only one is used
+ * @param keys           several API keys, used in turn by load (see RiotKeyPool); replaces {@code key}
+ * @param requestTimeout limit for one Riot HTTP call (each 429 retry gets its own)
+ * @param baseUrl        host for account-v1 and tft-match-v1; {@code {region}} is replaced by the routing region
+ *                       of the call (americas, asia, europe, sea). Without it, all regions use this host (a fake
+ *                       server in the load test)
+ * @param keyQuarantine  how long a key answering 401/403 is left out before it is tried again
+ */
 @ConfigurationProperties(prefix = "riot.api")
-public record RiotProperties(String key) {}
+public record RiotProperties(
+        String key,
+        List<String> keys,
+        @DefaultValue("10s") Duration requestTimeout,
+        @DefaultValue("https://{region}.api.riotgames.com") String baseUrl,
+        @DefaultValue("15m") Duration keyQuarantine
+) {}
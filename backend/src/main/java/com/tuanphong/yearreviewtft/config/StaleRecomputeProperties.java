@@ -0,0 +1,18 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Lazy recompute of summaries computed by an older aggregation version (see StaleSummaryRecomputer).
+ *
+ * @param enabled    enqueue a recompute when a stale summary is read
+ * @param perSecond  recomputes started per second at most
+ * @param maxPending players waiting for a recompute; reads beyond that are not enqueued (the next read retries)
+ */
+@ConfigurationProperties(prefix = "summary.stale-recompute")
+public record StaleRecomputeProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("2") double perSecond,
+        @DefaultValue("10000") int maxPending
+) {}
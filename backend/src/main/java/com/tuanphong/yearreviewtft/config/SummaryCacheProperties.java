@@ -0,0 +1,17 @@
+package com.tuanphong.yearreviewtft.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxEntries      summaries kept as pre-serialized bytes (LRU)
+ * @param revalidateAfter how long a cached summary is served before its computed_at is re-checked,
+ *                        which picks up recomputes done by other instances
+ */
+@ConfigurationProperties(prefix = "summary.cache")
+public record SummaryCacheProperties(
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("30s") Duration revalidateAfter
+) {}
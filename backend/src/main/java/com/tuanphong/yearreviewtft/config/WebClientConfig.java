@@ -1,17 +1,33 @@
 package com.tuanphong.yearreviewtft.config;
 
+import com.tuanphong.yearreviewtft.riot.RiotKeyPool;
+import com.tuanphong.yearreviewtft.riot.RiotRegion;
+import com.tuanphong.yearreviewtft.riot.RiotWebClients;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import java.net.http.HttpClient;
+import java.util.EnumMap;
+import java.util.Map;
+
 @Configuration
 public class WebClientConfig {
 
+    /** A separate java.net.http client (and so connection pool) per region; X-Riot-Token is set per request by the key pool. */
     @Bean
-    public WebClient riotWebClient(RiotProperties riotProperties) {
-        return WebClient.builder()
-                .defaultHeader("X-Riot-Token", riotProperties.key())
-                .build();
+    public RiotWebClients riotWebClients(RiotKeyPool riotKeyPool, RiotProperties riotProperties) {
+        Map<RiotRegion, WebClient> clients = new EnumMap<>(RiotRegion.class);
+        for (RiotRegion region : RiotRegion.values()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .connectTimeout(riotProperties.requestTimeout())
+                    .build();
+            clients.put(region, WebClient.builder()
+                    .clientConnector(new JdkClientHttpConnector(http))
+                    .filter(riotKeyPool.forRegion(region))
+                    .build());
+        }
+        return new RiotWebClients(clients);
     }
 }
-
@@ -1,28 +1,68 @@
 package com.tuanphong.yearreviewtft.config;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 import org.springframework.web.servlet.resource.PathResourceResolver;
 
+/**
+ * Serves the Next.js static export baked into the jar (see Dockerfile).
+ *
+ * The Dockerfile writes .br / .gz next to each asset at build time; EncodedResourceResolver picks the best
+ * one the client accepts. Resolution results are cached (bounded), so exists() checks only run on the
+ * first request of a path.
+ */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+
+    private static final String STATIC = "classpath:/static/";
+    private static final int RESOLVER_CACHE_ENTRIES = 2048;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // content-hashed build output: a changed file gets a new URL
+        registry.addResourceHandler("/_next/static/**")
+                .addResourceLocations(STATIC + "_next/static/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .resourceChain(true, new BoundedResourceCache("next-static", RESOLVER_CACHE_ENTRIES))
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+
+        // pages and unhashed files: revalidated against Last-Modified on every use
         registry.addResourceHandler("/**")
-                .addResourceLocations("classpath:/static/")
-                .resourceChain(true)
-                .addResolver(new PathResourceResolver() {
-                    @Override
-                    protected Resource getResource(String resourcePath, Resource location) throws IOException {
-                        Resource requested = location.createRelative(resourcePath);
-                        return (requested.exists() && requested.isReadable())
-                                ? requested
-                                : location.createRelative("index.html");
-                    }
-                });
+                .addResourceLocations(STATIC)
+                .setCacheControl(CacheControl.noCache().cachePublic())
+                .resourceChain(true, new BoundedResourceCache("static", RESOLVER_CACHE_ENTRIES))
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new SpaFallbackResolver());
+    }
+
+    /**
+     * Exported routes are files like start.html, so /start resolves to start.html; other paths without
+     * an extension fall back to index.html. Missing files with an extension stay 404 instead of
+     * returning the HTML shell.
+     */
+    static class SpaFallbackResolver extends PathResourceResolver {
+        @Override
+        protected Resource getResource(String resourcePath, Resource location) throws IOException {
+            if (resourcePath.isEmpty() || resourcePath.endsWith("/")) {
+                Resource index = super.getResource(resourcePath + "index.html", location);
+                return index != null ? index : super.getResource("index.html", location);
+            }
+
+            Resource requested = super.getResource(resourcePath, location);
+            if (requested != null) return requested;
+            if (StringUtils.getFilenameExtension(resourcePath) != null) return null;
+
+            Resource page = super.getResource(resourcePath + ".html", location);
+            return page != null ? page : super.getResource("index.html", location);
+        }
     }
 }
@@ -0,0 +1,75 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One executed job (a single player or a batch roster). Inserted when the job starts, totals and outcome
+ * are set when it ends; the per-stage breakdown is in {@link JobRunStageEntity}.
+ */
+@Entity
+@Table(name = "job_run")
+public class JobRunEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private int year;
+
+    @Column(nullable = false)
+    private int players;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant endedAt;
+
+    @Column(length = 16)
+    private String outcome; // done, partial, failed; null while running
+
+    @Column(nullable = false)
+    private int riotCalls;
+
+    @Column(nullable = false)
+    private int retries;
+
+    @Column(nullable = false)
+    private int cacheHits;
+
+    @Column(nullable = false)
+    private long bytesStored;
+
+    // getters/setters
+
+    public Long getId() { return id; }
+
+    public int getYear() { return year; }
+    public void setYear(int year) { this.year = year; }
+
+    public int getPlayers() { return players; }
+    public void setPlayers(int players) { this.players = players; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+
+    public Instant getEndedAt() { return endedAt; }
+    public void setEndedAt(Instant endedAt) { this.endedAt = endedAt; }
+
+    public String getOutcome() { return outcome; }
+    public void setOutcome(String outcome) { this.outcome = outcome; }
+
+    public int getRiotCalls() { return riotCalls; }
+    public void setRiotCalls(int riotCalls) { this.riotCalls = riotCalls; }
+
+    public int getRetries() { return retries; }
+    public void setRetries(int retries) { this.retries = retries; }
+
+    public int getCacheHits() { return cacheHits; }
+    public void setCacheHits(int cacheHits) { this.cacheHits = cacheHits; }
+
+    public long getBytesStored() { return bytesStored; }
+    public void setBytesStored(long bytesStored) { this.bytesStored = bytesStored; }
+}
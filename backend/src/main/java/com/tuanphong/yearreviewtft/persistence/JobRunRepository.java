@@ -0,0 +1,58 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface JobRunRepository extends JpaRepository<JobRunEntity, Long> {
+
+    /** Totals of a finished job, by id (no read-back of the row). */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE job_run SET ended_at = :endedAt, outcome = :outcome, riot_calls = :riotCalls, retries = :retries,
+                           cache_hits = :cacheHits, bytes_stored = :bytesStored
+        WHERE id = :id
+        """, nativeQuery = true)
+    int finish(
+            @Param("id") long id,
+            @Param("endedAt") Instant endedAt,
+            @Param("outcome") String outcome,
+            @Param("riotCalls") int riotCalls,
+            @Param("retries") int retries,
+            @Param("cacheHits") int cacheHits,
+            @Param("bytesStored") long bytesStored
+    );
+
+    interface JobStats {
+        long getCount();
+        long getPlayers();
+        Double getP50Ms();
+        Double getP95Ms();
+        long getRiotCalls();
+        long getRetries();
+        long getCacheHits();
+        long getBytesStored();
+    }
+
+    /** Wall-clock percentiles and totals of the jobs that started since {@code since} and have ended. */
+    @Query(value = """
+        SELECT count(*)                                                                       AS "count",
+               coalesce(sum(players), 0)                                                      AS "players",
+               percentile_cont(0.5) WITHIN GROUP (ORDER BY extract(epoch FROM ended_at - started_at) * 1000)
+                                                                                              AS "p50Ms",
+               percentile_cont(0.95) WITHIN GROUP (ORDER BY extract(epoch FROM ended_at - started_at) * 1000)
+                                                                                              AS "p95Ms",
+               coalesce(sum(riot_calls), 0)                                                   AS "riotCalls",
+               coalesce(sum(retries), 0)                                                      AS "retries",
+               coalesce(sum(cache_hits), 0)                                                   AS "cacheHits",
+               coalesce(sum(bytes_stored), 0)                                                 AS "bytesStored"
+        FROM job_run
+        WHERE started_at >= :since AND ended_at IS NOT NULL
+        """, nativeQuery = true)
+    JobStats jobStatsSince(@Param("since") Instant since);
+}
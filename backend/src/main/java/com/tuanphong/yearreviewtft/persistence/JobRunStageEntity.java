@@ -0,0 +1,82 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One finished stage of a {@link JobRunEntity}, with what happened during it. Stages done per player
+ * (FETCHING_MATCH_IDS, SAVING_MATCH_IDS, COMPUTING) carry the puuid; shared ones don't.
+ */
+@Entity
+@Table(name = "job_run_stage")
+public class JobRunStageEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long jobRunId;
+
+    @Column(nullable = false, length = 32)
+    private String stage;
+
+    @Column(length = 128)
+    private String puuid;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private Instant endedAt;
+
+    @Column(nullable = false)
+    private long durationMs;
+
+    @Column(nullable = false)
+    private int riotCalls;
+
+    @Column(nullable = false)
+    private int retries;
+
+    @Column(nullable = false)
+    private int cacheHits;
+
+    @Column(nullable = false)
+    private long bytesStored;
+
+    // getters/setters
+
+    public Long getId() { return id; }
+
+    public Long getJobRunId() { return jobRunId; }
+    public void setJobRunId(Long jobRunId) { this.jobRunId = jobRunId; }
+
+    public String getStage() { return stage; }
+    public void setStage(String stage) { this.stage = stage; }
+
+    public String getPuuid() { return puuid; }
+    public void setPuuid(String puuid) { this.puuid = puuid; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+
+    public Instant getEndedAt() { return endedAt; }
+    public void setEndedAt(Instant endedAt) { this.endedAt = endedAt; }
+
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+
+    public int getRiotCalls() { return riotCalls; }
+    public void setRiotCalls(int riotCalls) { this.riotCalls = riotCalls; }
+
+    public int getRetries() { return retries; }
+    public void setRetries(int retries) { this.retries = retries; }
+
+    public int getCacheHits() { return cacheHits; }
+    public void setCacheHits(int cacheHits) { this.cacheHits = cacheHits; }
+
+    public long getBytesStored() { return bytesStored; }
+    public void setBytesStored(long bytesStored) { this.bytesStored = bytesStored; }
+}
@@ -0,0 +1,43 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface JobRunStageRepository extends JpaRepository<JobRunStageEntity, Long> {
+
+    interface StageStats {
+        String getStage();
+        long getCount();
+        double getP50Ms();
+        double getP95Ms();
+        long getMaxMs();
+        long getTotalMs();
+        long getRiotCalls();
+        long getRetries();
+        long getCacheHits();
+        long getBytesStored();
+    }
+
+    /** Duration percentiles and totals per stage for stages started since {@code since}. */
+    @Query(value = """
+        SELECT stage                                                       AS "stage",
+               count(*)                                                    AS "count",
+               percentile_cont(0.5) WITHIN GROUP (ORDER BY duration_ms)    AS "p50Ms",
+               percentile_cont(0.95) WITHIN GROUP (ORDER BY duration_ms)   AS "p95Ms",
+               max(duration_ms)                                            AS "maxMs",
+               sum(duration_ms)                                            AS "totalMs",
+               sum(riot_calls)                                             AS "riotCalls",
+               sum(retries)                                                AS "retries",
+               sum(cache_hits)                                             AS "cacheHits",
+               sum(bytes_stored)                                           AS "bytesStored"
+        FROM job_run_stage
+        WHERE started_at >= :since
+        GROUP BY stage
+        ORDER BY sum(duration_ms) DESC
+        """, nativeQuery = true)
+    List<StageStats> stageStatsSince(@Param("since") Instant since);
+}
@@ -0,0 +1,258 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import com.tuanphong.yearreviewtft.config.MatchArchiveProperties;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only local archive of compressed match payloads (cold tier of match_cache).
+ *
+ * Each segment is a pair of files: {@code seg-NNNNNN.dat} with the payload bytes back to back, exactly as
+ * {@link MatchPayloadCodec} encoded them, and {@code seg-NNNNNN.idx} with one entry per payload
+ * (u16 id length, match id, i64 offset, i32 length, i32 dictionary id or -1). Both are fsynced data first,
+ * so a crash can leave unindexed bytes at the end of a segment but never an index entry without data; a
+ * torn index tail is ignored on load. The index of all segments is kept in memory.
+ *
+ * Reads go through read-only memory mappings of the segments, so bulk recomputes pull payloads straight
+ * from the page cache ({@link #slice}) instead of through JDBC.
+ *
+ * Several instances may share the directory (a shared volume): appends hold an exclusive lock on
+ * {@code archive.lock}, and a lookup that misses picks up index entries other instances appended since,
+ * at most every {@link #REFRESH_INTERVAL_NANOS}.
+ */
+@Component
+public class MatchArchive {
+
+    private static final String DATA_SUFFIX = ".dat";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String LOCK_FILE = "archive.lock";
+    private static final int NO_DICTIONARY = -1;
+    private static final long REFRESH_INTERVAL_NANOS = 10_000_000_000L;
+
+    public record Entry(String matchId, MatchPayloadCodec.Encoded payload) {}
+
+    /** View of an archived payload inside the segment mapping; valid as long as the archive is open. */
+    public record Slice(ByteBuffer bytes, Integer dictionaryId) {}
+
+    record Location(int segment, long offset, int length, Integer dictionaryId) {}
+
+    private final Path dir;
+    private final long segmentSize;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final Map<Integer, MappedByteBuffer> mappings = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> indexBytesRead = new TreeMap<>(); // complete entries per segment
+    private int currentSegment;
+    private volatile long nextRefreshNanos;
+
+    public MatchArchive(MatchArchiveProperties properties) {
+        this.dir = properties.dir();
+        this.segmentSize = properties.segmentSize().toBytes();
+        refreshIndex();
+    }
+
+    public boolean contains(String matchId) {
+        return lookup(matchId) != null;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public Optional<MatchPayloadCodec.Encoded> read(String matchId) {
+        return slice(matchId).map(s -> {
+            byte[] bytes = new byte[s.bytes().remaining()];
+            s.bytes().get(bytes);
+            return new MatchPayloadCodec.Encoded(bytes, s.dictionaryId());
+        });
+    }
+
+    /**
+     * Zero-copy view of the compressed payload; feed it to {@link MatchPayloadCodec#decodeBytes}.
+     */
+    public Optional<Slice> slice(String matchId) {
+        Location loc = lookup(matchId);
+        if (loc == null) return Optional.empty();
+        MappedByteBuffer map = mapping(loc.segment(), loc.offset() + loc.length());
+        return Optional.of(new Slice(map.slice((int) loc.offset(), loc.length()), loc.dictionaryId()));
+    }
+
+    /**
+     * Appends the payloads and makes them durable before they become visible; a match archived twice
+     * resolves to the latest copy.
+     */
+    public synchronized void append(List<Entry> entries) {
+        if (entries.isEmpty()) return;
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel lockFile = FileChannel.open(dir.resolve(LOCK_FILE),
+                         StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = lockFile.lock()) {
+                appendLocked(entries);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Appending to match archive " + dir, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        // mappings are released by the GC once unreferenced
+        mappings.clear();
+    }
+
+    // ---------------- internal ----------------
+
+    private void appendLocked(List<Entry> entries) throws IOException {
+        refreshIndex(); // other instances may have appended or rolled segments
+        if (currentSegment == 0 || Files.size(segmentFile(currentSegment, DATA_SUFFIX)) >= segmentSize) {
+            currentSegment++;
+        }
+
+        Map<String, Location> written = new TreeMap<>();
+        try (FileChannel data = FileChannel.open(segmentFile(currentSegment, DATA_SUFFIX),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             FileChannel idx = FileChannel.open(segmentFile(currentSegment, INDEX_SUFFIX),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+            long offset = data.size();
+            for (Entry e : entries) {
+                byte[] bytes = e.payload().bytes();
+                writeFully(data, ByteBuffer.wrap(bytes));
+                written.put(e.matchId(), new Location(currentSegment, offset, bytes.length, e.payload().dictionaryId()));
+                offset += bytes.length;
+            }
+            data.force(false);
+
+            // drop a torn tail left by a crashed writer, then append after the last complete entry
+            long end = indexBytesRead.getOrDefault(currentSegment, 0L);
+            idx.truncate(end).position(end);
+            for (Map.Entry<String, Location> w : written.entrySet()) {
+                ByteBuffer entry = encodeIndexEntry(w.getKey(), w.getValue());
+                end += entry.remaining();
+                writeFully(idx, entry);
+            }
+            idx.force(false);
+            indexBytesRead.put(currentSegment, end);
+        }
+        index.putAll(written);
+    }
+
+    private Location lookup(String matchId) {
+        Location loc = index.get(matchId);
+        if (loc == null && System.nanoTime() - nextRefreshNanos >= 0) {
+            refreshIndex();
+            loc = index.get(matchId);
+        }
+        return loc;
+    }
+
+    /** Reads index entries appended since the last refresh, by this or another instance. */
+    synchronized void refreshIndex() {
+        nextRefreshNanos = System.nanoTime() + REFRESH_INTERVAL_NANOS;
+        if (!Files.isDirectory(dir)) return;
+        List<Integer> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith("seg-") && n.endsWith(INDEX_SUFFIX))
+                    .map(n -> Integer.parseInt(n.substring(4, n.length() - INDEX_SUFFIX.length())))
+                    .sorted()
+                    .forEach(segments::add);
+
+            for (int segment : segments) {
+                long read = indexBytesRead.getOrDefault(segment, 0L);
+                if (Files.size(segmentFile(segment, INDEX_SUFFIX)) > read) {
+                    try (InputStream raw = Files.newInputStream(segmentFile(segment, INDEX_SUFFIX));
+                         DataInputStream in = new DataInputStream(new BufferedInputStream(raw))) {
+                        in.skipNBytes(read);
+                        indexBytesRead.put(segment, read + readIndex(segment, in));
+                    }
+                }
+                currentSegment = Math.max(currentSegment, segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Loading match archive index from " + dir, e);
+        }
+    }
+
+    /** @return bytes of the complete entries read */
+    private long readIndex(int segment, DataInputStream in) throws IOException {
+        long read = 0;
+        while (true) {
+            try {
+                byte[] id = new byte[in.readUnsignedShort()];
+                in.readFully(id);
+                long offset = in.readLong();
+                int length = in.readInt();
+                int dict = in.readInt();
+                index.put(new String(id, StandardCharsets.UTF_8),
+                        new Location(segment, offset, length, dict == NO_DICTIONARY ? null : dict));
+                read += 2 + id.length + 8 + 4 + 4;
+            } catch (EOFException end) {
+                return read; // clean end, or a torn last entry (crash, or another writer mid-append)
+            }
+        }
+    }
+
+    private static ByteBuffer encodeIndexEntry(String matchId, Location loc) {
+        byte[] id = matchId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.allocate(2 + id.length + 8 + 4 + 4);
+        buf.putShort((short) id.length).put(id)
+                .putLong(loc.offset())
+                .putInt(loc.length())
+                .putInt(loc.dictionaryId() == null ? NO_DICTIONARY : loc.dictionaryId());
+        return buf.flip();
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    /**
+     * Mapping of the segment covering at least {@code end}; the current segment is remapped as it grows.
+     */
+    private MappedByteBuffer mapping(int segment, long end) {
+        MappedByteBuffer map = mappings.get(segment);
+        if (map != null && map.capacity() >= end) return map;
+
+        synchronized (mappings) {
+            map = mappings.get(segment);
+            if (map != null && map.capacity() >= end) return map;
+            try (FileChannel ch = FileChannel.open(segmentFile(segment, DATA_SUFFIX), StandardOpenOption.READ)) {
+                long size = ch.size();
+                if (size < end) throw new EOFException("Archive segment " + segment + " is truncated");
+                if (size > Integer.MAX_VALUE) throw new IOException("Archive segment " + segment + " exceeds 2 GiB");
+                map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Mapping archive segment " + segment, e);
+            }
+            mappings.put(segment, map);
+            return map;
+        }
+    }
+
+    private Path segmentFile(int segment, String suffix) {
+        return dir.resolve("seg-%06d%s".formatted(segment, suffix));
+    }
+}
@@ -15,15 +15,22 @@ public class MatchCacheEntity {
     private String matchId;
 
     @Column(nullable = false, length = 16)
-    private String routing; // "EUROPE"
+    private String routing; // RiotRegion the match was fetched from, e.g. "EUROPE"
 
     @Column(nullable = false)
     private Instant fetchedAt;
 
+    // Exactly one of payload_json / payload_compressed is set; read through MatchCacheRepository.findPayloadJson
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(name = "payload_json", columnDefinition = "jsonb", nullable = false)
+    @Column(name = "payload_json", columnDefinition = "jsonb")
     private String payloadJson;
 
+    @Column(name = "payload_compressed")
+    private byte[] payloadCompressed; // zlib, see MatchPayloadCodec
+
+    @Column(name = "payload_dict_id")
+    private Integer payloadDictId; // null = no preset dictionary
+
     @PrePersist
     void prePersist() {
         fetchedAt = Instant.now();
@@ -39,4 +46,8 @@ public class MatchCacheEntity {
     public Instant getFetchedAt() { return fetchedAt; }
     public String getPayloadJson() { return payloadJson; }
     public void setPayloadJson(String payloadJson) { this.payloadJson = payloadJson; }
+    public byte[] getPayloadCompressed() { return payloadCompressed; }
+    public void setPayloadCompressed(byte[] payloadCompressed) { this.payloadCompressed = payloadCompressed; }
+    public Integer getPayloadDictId() { return payloadDictId; }
+    public void setPayloadDictId(Integer payloadDictId) { this.payloadDictId = payloadDictId; }
 }
@@ -1,6 +1,57 @@
 package com.tuanphong.yearreviewtft.persistence;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface MatchCacheRepository extends JpaRepository<MatchCacheEntity, String> {
+import java.time.Instant;
+import java.util.List;
+
+public interface MatchCacheRepository extends JpaRepository<MatchCacheEntity, String>, MatchPayloadAccess {
+
+    // keyset paging over rows still stored as jsonb
+    @Query(value = """
+        SELECT match_id FROM match_cache
+        WHERE payload_json IS NOT NULL AND match_id > :after
+        ORDER BY match_id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<String> findUncompressedMatchIds(@Param("after") String after, @Param("limit") int limit);
+
+    // keyset paging over all rows (archive export)
+    @Query(value = """
+        SELECT match_id FROM match_cache
+        WHERE match_id > :after
+        ORDER BY match_id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<String> findMatchIdsAfter(@Param("after") String after, @Param("limit") int limit);
+
+    @Query(value = """
+        SELECT CAST(payload_json AS text) FROM match_cache
+        WHERE payload_json IS NOT NULL
+        ORDER BY fetched_at DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<String> sampleRecentPayloads(@Param("limit") int limit);
+
+    // archive candidates: fetched before the cutoff, used by at least one saved summary,
+    // and not part of a job that is still running for any of the lobby's players
+    @Query(value = """
+        SELECT mc.match_id FROM match_cache mc
+        WHERE mc.fetched_at < :cutoff AND mc.match_id > :after
+          AND EXISTS (
+            SELECT 1 FROM player_match pm
+            JOIN year_summary ys ON ys.puuid = pm.puuid AND ys.year = pm.year
+            WHERE pm.match_id = mc.match_id)
+          AND NOT EXISTS (
+            SELECT 1 FROM player_match pm
+            JOIN player_year py ON py.puuid = pm.puuid AND py.year = pm.year
+            WHERE pm.match_id = mc.match_id
+              AND py.state IN ('FETCHING_MATCH_IDS', 'SAVING_MATCH_IDS', 'FETCHING_MATCH_DETAILS', 'COMPUTING'))
+        ORDER BY mc.match_id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<String> findArchivableMatchIds(@Param("cutoff") Instant cutoff, @Param("after") String after,
+                                        @Param("limit") int limit);
 }
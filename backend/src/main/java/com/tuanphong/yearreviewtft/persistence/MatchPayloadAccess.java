@@ -0,0 +1,25 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import java.util.Optional;
+
+/**
+ * Payload-level access to match_cache that hides whether a row is stored as jsonb or compressed bytea, or
+ * was moved to the {@link MatchArchive}. Mixed into {@link MatchCacheRepository}; readers should use this
+ * instead of the entity fields.
+ */
+public interface MatchPayloadAccess {
+
+    Optional<String> findPayloadJson(String matchId);
+
+    /** Whether the payload is cached, in Postgres or in the archive; does not load it. */
+    boolean hasPayload(String matchId);
+
+    /** The payload in its compressed form (encoding jsonb rows on the fly), as written to the archive. */
+    Optional<MatchPayloadCodec.Encoded> findEncodedPayload(String matchId);
+
+    /** Inserts the payload, compressed when match-cache.compress is on; returns the payload bytes stored. */
+    int savePayload(String matchId, String routing, String payloadJson);
+
+    /** Rewrites one jsonb row in compressed form; false if it was already compressed or is gone. */
+    boolean compressExisting(String matchId);
+}
@@ -0,0 +1,89 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import com.tuanphong.yearreviewtft.config.MatchCacheProperties;
+import jakarta.persistence.EntityManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+class MatchPayloadAccessImpl implements MatchPayloadAccess {
+
+    private final EntityManager entityManager;
+    private final MatchPayloadCodec codec;
+    private final MatchCacheProperties properties;
+    private final MatchArchive archive;
+
+    MatchPayloadAccessImpl(EntityManager entityManager, MatchPayloadCodec codec, MatchCacheProperties properties,
+                           MatchArchive archive) {
+        this.entityManager = entityManager;
+        this.codec = codec;
+        this.properties = properties;
+        this.archive = archive;
+    }
+
+    @Override
+    public Optional<String> findPayloadJson(String matchId) {
+        MatchCacheEntity ent = entityManager.find(MatchCacheEntity.class, matchId);
+        if (ent == null) {
+            // read-through to the cold tier
+            return archive.read(matchId).map(e -> codec.decode(e.bytes(), e.dictionaryId()));
+        }
+        if (ent.getPayloadJson() != null) return Optional.of(ent.getPayloadJson());
+        if (ent.getPayloadCompressed() == null) return Optional.empty();
+        return Optional.of(codec.decode(ent.getPayloadCompressed(), ent.getPayloadDictId()));
+    }
+
+    @Override
+    public boolean hasPayload(String matchId) {
+        if (archive.contains(matchId)) return true;
+        return !entityManager.createQuery("select m.matchId from MatchCacheEntity m where m.matchId = :id", String.class)
+                .setParameter("id", matchId)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    @Override
+    public Optional<MatchPayloadCodec.Encoded> findEncodedPayload(String matchId) {
+        MatchCacheEntity ent = entityManager.find(MatchCacheEntity.class, matchId);
+        if (ent == null) return Optional.empty();
+        if (ent.getPayloadCompressed() != null) {
+            return Optional.of(new MatchPayloadCodec.Encoded(ent.getPayloadCompressed(), ent.getPayloadDictId()));
+        }
+        if (ent.getPayloadJson() == null) return Optional.empty();
+        return Optional.of(codec.encode(ent.getPayloadJson()));
+    }
+
+    @Override
+    public int savePayload(String matchId, String routing, String payloadJson) {
+        MatchCacheEntity ent = new MatchCacheEntity();
+        ent.setMatchId(matchId);
+        ent.setRouting(routing);
+        setPayload(ent, payloadJson, properties.compress());
+        entityManager.persist(ent);
+        return ent.getPayloadCompressed() != null
+                ? ent.getPayloadCompressed().length
+                : payloadJson.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Override
+    public boolean compressExisting(String matchId) {
+        MatchCacheEntity ent = entityManager.find(MatchCacheEntity.class, matchId);
+        if (ent == null || ent.getPayloadJson() == null) return false;
+        setPayload(ent, ent.getPayloadJson(), true);
+        return true;
+    }
+
+    private void setPayload(MatchCacheEntity ent, String payloadJson, boolean compress) {
+        if (compress) {
+            MatchPayloadCodec.Encoded encoded = codec.encode(payloadJson);
+            ent.setPayloadCompressed(encoded.bytes());
+            ent.setPayloadDictId(encoded.dictionaryId());
+            ent.setPayloadJson(null);
+        } else {
+            ent.setPayloadJson(payloadJson);
+            ent.setPayloadCompressed(null);
+            ent.setPayloadDictId(null);
+        }
+    }
+}
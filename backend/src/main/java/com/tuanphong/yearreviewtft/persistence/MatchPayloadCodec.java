@@ -0,0 +1,183 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * zlib compression of match payloads with a preset dictionary trained on TFT payloads.
+ *
+ * Match documents are ~25 KB of the same keys, trait/unit/item IDs repeated eight times, so a shared
+ * dictionary lets even the first occurrence of each token be a back-reference. Payloads written without
+ * a dictionary (none trained yet) have a null dictionary id and are plain zlib.
+ */
+@Component
+public class MatchPayloadCodec {
+
+    // deflate can only reference the last 32 KiB, a bigger dictionary would be wasted
+    public static final int MAX_DICTIONARY_BYTES = 32 * 1024;
+
+    private final PayloadDictionaryRepository dictionaryRepository;
+    private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+    private volatile PayloadDictionaryEntity current;
+    private volatile boolean currentLoaded;
+
+    public MatchPayloadCodec(PayloadDictionaryRepository dictionaryRepository) {
+        this.dictionaryRepository = dictionaryRepository;
+    }
+
+    public record Encoded(byte[] bytes, Integer dictionaryId) {}
+
+    public Encoded encode(String json) {
+        PayloadDictionaryEntity dict = currentDictionary();
+        byte[] raw = json.getBytes(StandardCharsets.UTF_8);
+        return dict == null
+                ? new Encoded(deflate(raw, null), null)
+                : new Encoded(deflate(raw, dict.getDictionary()), dict.getId());
+    }
+
+    public String decode(byte[] compressed, Integer dictionaryId) {
+        byte[] dict = dictionaryId == null ? null : dictionary(dictionaryId);
+        return new String(inflate(compressed, dict), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Raw UTF-8 JSON of a payload inflated straight from a (memory-mapped) buffer, for parsers that take
+     * bytes; skips the String round trip of {@link #decode}.
+     */
+    public byte[] decodeBytes(ByteBuffer compressed, Integer dictionaryId) {
+        byte[] dict = dictionaryId == null ? null : dictionary(dictionaryId);
+        return inflate(compressed, dict);
+    }
+
+    /**
+     * Trains and stores a new dictionary; it becomes the one used for all following writes.
+     */
+    public PayloadDictionaryEntity train(List<String> samples) {
+        PayloadDictionaryEntity ent = new PayloadDictionaryEntity();
+        ent.setDictionary(trainDictionary(samples, MAX_DICTIONARY_BYTES));
+        ent.setSampleCount(samples.size());
+        ent = dictionaryRepository.save(ent);
+
+        dictionaries.put(ent.getId(), ent.getDictionary());
+        current = ent;
+        currentLoaded = true;
+        return ent;
+    }
+
+    public boolean hasDictionary() {
+        return currentDictionary() != null;
+    }
+
+    // ---------------- static helpers (also used by benchmarks) ----------------
+
+    public static byte[] deflate(byte[] raw, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            if (dictionary != null) deflater.setDictionary(dictionary);
+            deflater.setInput(raw);
+            deflater.finish();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 6));
+            byte[] buf = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buf);
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static byte[] inflate(byte[] compressed, byte[] dictionary) {
+        return inflate(ByteBuffer.wrap(compressed), dictionary);
+    }
+
+    public static byte[] inflate(ByteBuffer compressed, byte[] dictionary) {
+        Inflater inflater = new Inflater();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.remaining() * 6);
+            inflater.setInput(compressed);
+            byte[] buf = new byte[16384];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buf);
+                if (n == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (dictionary == null) throw new IllegalStateException("Payload needs a dictionary");
+                        inflater.setDictionary(dictionary);
+                        continue;
+                    }
+                    if (inflater.needsInput()) throw new IllegalStateException("Truncated compressed payload");
+                }
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed payload: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Builds a dictionary from the JSON fragments (split after ',', '{' and '[') that save the most bytes
+     * across the samples: frequency x length. The most valuable fragments go last, closest to the data,
+     * where deflate's distance codes are cheapest.
+     */
+    public static byte[] trainDictionary(List<String> samples, int maxBytes) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String sample : samples) {
+            for (String fragment : sample.split("(?<=[,{\\[])")) {
+                if (fragment.length() < 4 || fragment.length() > 128) continue;
+                counts.merge(fragment, 1, Integer::sum);
+            }
+        }
+
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>(counts.entrySet());
+        ranked.removeIf(e -> e.getValue() < 2);
+        ranked.sort((a, b) -> Long.compare(
+                (long) b.getValue() * b.getKey().length(),
+                (long) a.getValue() * a.getKey().length()));
+
+        List<byte[]> picked = new ArrayList<>();
+        int size = 0;
+        for (Map.Entry<String, Integer> e : ranked) {
+            byte[] bytes = e.getKey().getBytes(StandardCharsets.UTF_8);
+            if (size + bytes.length > maxBytes) continue;
+            picked.add(bytes);
+            size += bytes.length;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        for (int i = picked.size() - 1; i >= 0; i--) out.writeBytes(picked.get(i));
+        return out.toByteArray();
+    }
+
+    // ---------------- internal ----------------
+
+    private PayloadDictionaryEntity currentDictionary() {
+        if (!currentLoaded) {
+            current = dictionaryRepository.findTopByOrderByIdDesc().orElse(null);
+            if (current != null) dictionaries.put(current.getId(), current.getDictionary());
+            currentLoaded = true;
+        }
+        return current;
+    }
+
+    private byte[] dictionary(int id) {
+        return dictionaries.computeIfAbsent(id, k -> dictionaryRepository.findOnPrimary(k)
+                .map(PayloadDictionaryEntity::getDictionary)
+                .orElseThrow(() -> new IllegalStateException("Unknown payload dictionary " + k)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Preset deflate dictionary trained on TFT match payloads. Rows are immutable: compressed payloads
+ * reference the dictionary they were written with.
+ */
+@Entity
+@Table(name = "payload_dictionary")
+public class PayloadDictionaryEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private byte[] dictionary;
+
+    @Column(nullable = false)
+    private int sampleCount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @PrePersist
+    void prePersist() {
+        createdAt = Instant.now();
+    }
+
+    // getters/setters
+
+    public Integer getId() { return id; }
+    public byte[] getDictionary() { return dictionary; }
+    public void setDictionary(byte[] dictionary) { this.dictionary = dictionary; }
+    public int getSampleCount() { return sampleCount; }
+    public void setSampleCount(int sampleCount) { this.sampleCount = sampleCount; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,24 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Dictionaries are looked up in their own read-write transaction, so always on the primary: one trained on
+ * another instance a moment ago may not be on the replica yet, and payloads written with it can't be decoded
+ * without it.
+ */
+public interface PayloadDictionaryRepository extends JpaRepository<PayloadDictionaryEntity, Integer> {
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    Optional<PayloadDictionaryEntity> findTopByOrderByIdDesc();
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("select d from PayloadDictionaryEntity d where d.id = :id")
+    Optional<PayloadDictionaryEntity> findOnPrimary(@Param("id") int id);
+}
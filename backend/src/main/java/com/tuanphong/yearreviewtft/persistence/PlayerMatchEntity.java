@@ -34,6 +34,15 @@ public class PlayerMatchEntity {
     @Column(nullable = false, length = 64)
     private String matchId;
 
+    // Per-participant stats, filled when the match payload is ingested (null until then)
+    private Integer placement;
+
+    private Integer level;
+
+    private Integer goldLeft;
+
+    private Long gameDatetime; // epoch millis, as reported by Riot
+
     // getters/setters
 
     public Long getId() { return id; }
@@ -43,5 +52,13 @@ public class PlayerMatchEntity {
     public void setYear(int year) { this.year = year; }
     public String getMatchId() { return matchId; }
     public void setMatchId(String matchId) { this.matchId = matchId; }
+    public Integer getPlacement() { return placement; }
+    public void setPlacement(Integer placement) { this.placement = placement; }
+    public Integer getLevel() { return level; }
+    public void setLevel(Integer level) { this.level = level; }
+    public Integer getGoldLeft() { return goldLeft; }
+    public void setGoldLeft(Integer goldLeft) { this.goldLeft = goldLeft; }
+    public Long getGameDatetime() { return gameDatetime; }
+    public void setGameDatetime(Long gameDatetime) { this.gameDatetime = gameDatetime; }
     public Instant getCreatedAt() { return createdAt; }
 }
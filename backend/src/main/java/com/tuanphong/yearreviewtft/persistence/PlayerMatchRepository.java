@@ -19,11 +19,25 @@ public interface PlayerMatchRepository extends JpaRepository<PlayerMatchEntity,
             @Param("year") int year
     );
 
+    /** The player's matches played in [fromMillis, toMillis); only matches whose details were cached have a time. */
+    @Query(value = """
+        SELECT match_id FROM player_match
+        WHERE puuid = :puuid AND year BETWEEN :fromYear AND :toYear
+          AND game_datetime >= :fromMillis AND game_datetime < :toMillis
+        """, nativeQuery = true)
+    List<String> findMatchIdsPlayedBetween(
+            @Param("puuid") String puuid,
+            @Param("fromYear") int fromYear,
+            @Param("toYear") int toYear,
+            @Param("fromMillis") long fromMillis,
+            @Param("toMillis") long toMillis
+    );
+
     @Modifying
     @Transactional
     @Query(value = """
-        INSERT INTO player_match (puuid, year, match_id)
-        VALUES (:puuid, :year, :matchId)
+        INSERT INTO player_match (puuid, year, match_id, created_at)
+        VALUES (:puuid, :year, :matchId, now())
         ON CONFLICT (puuid, year, match_id) DO NOTHING
         """, nativeQuery = true)
     void insertIgnoreDuplicate(
@@ -31,4 +45,25 @@ public interface PlayerMatchRepository extends JpaRepository<PlayerMatchEntity,
             @Param("year") int year,
             @Param("matchId") String matchId
     );
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO player_match (puuid, year, match_id, placement, level, gold_left, game_datetime, created_at)
+        VALUES (:puuid, :year, :matchId, :placement, :level, :goldLeft, :gameDatetime, now())
+        ON CONFLICT (puuid, year, match_id) DO UPDATE SET
+            placement = EXCLUDED.placement,
+            level = EXCLUDED.level,
+            gold_left = EXCLUDED.gold_left,
+            game_datetime = EXCLUDED.game_datetime
+        """, nativeQuery = true)
+    void upsertParticipant(
+            @Param("puuid") String puuid,
+            @Param("year") int year,
+            @Param("matchId") String matchId,
+            @Param("placement") Integer placement,
+            @Param("level") Integer level,
+            @Param("goldLeft") Integer goldLeft,
+            @Param("gameDatetime") Long gameDatetime
+    );
 }
@@ -0,0 +1,47 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * The summary accumulators of one player's games in one calendar month, serialized by AccumulatorCodec.
+ */
+@Entity
+@Table(
+        name = "player_month_aggregate",
+        uniqueConstraints = @UniqueConstraint(name = "uk_player_month_aggregate", columnNames = {"puuid", "month"})
+)
+public class PlayerMonthAggregateEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 128)
+    private String puuid;
+
+    @Column(nullable = false)
+    private LocalDate month; // first day of the month, Europe/Berlin
+
+    @Column(nullable = false)
+    private int summaryVersion;
+
+    @Column(nullable = false)
+    private int games;
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String accumulators;
+
+    @Column(nullable = false)
+    private Instant computedAt;
+
+    // getters
+    public Long getId() { return id; }
+    public String getPuuid() { return puuid; }
+    public LocalDate getMonth() { return month; }
+    public int getSummaryVersion() { return summaryVersion; }
+    public int getGames() { return games; }
+    public String getAccumulators() { return accumulators; }
+    public Instant getComputedAt() { return computedAt; }
+}
@@ -0,0 +1,55 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface PlayerMonthAggregateRepository extends JpaRepository<PlayerMonthAggregateEntity, Long> {
+
+    /** Months in [from, to], both given as first days of a month. */
+    List<PlayerMonthAggregateEntity> findByPuuidAndMonthBetweenOrderByMonthAsc(String puuid, LocalDate from, LocalDate to);
+
+    List<PlayerMonthAggregateEntity> findByPuuidOrderByMonthAsc(String puuid);
+
+    @Transactional
+    void deleteByPuuidAndMonthBetween(String puuid, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO player_month_aggregate (puuid, month, summary_version, games, accumulators, computed_at)
+        VALUES (:puuid, :month, :version, :games, :accumulators, now())
+        ON CONFLICT (puuid, month) DO UPDATE SET
+            summary_version = EXCLUDED.summary_version,
+            games = EXCLUDED.games,
+            accumulators = EXCLUDED.accumulators,
+            computed_at = EXCLUDED.computed_at
+        """, nativeQuery = true)
+    void upsert(
+            @Param("puuid") String puuid,
+            @Param("month") LocalDate month,
+            @Param("version") int version,
+            @Param("games") int games,
+            @Param("accumulators") String accumulators
+    );
+
+    /** Drops months of the year that no longer have games; {@code keep} must not be empty. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        DELETE FROM player_month_aggregate
+        WHERE puuid = :puuid AND month >= make_date(:year, 1, 1) AND month < make_date(:year + 1, 1, 1)
+          AND month NOT IN (:keep)
+        """, nativeQuery = true)
+    int deleteMonthsOfYearExcept(
+            @Param("puuid") String puuid,
+            @Param("year") int year,
+            @Param("keep") Collection<LocalDate> keep
+    );
+}
@@ -21,13 +21,13 @@ public class PlayerYearEntity {
     private int year;
 
     @Column(nullable = false, length = 16)
-    private String platform; // EUW1/EUN1 (for future endpoints)
+    private String platform; // EUW1, NA1, KR, ... (routing region of the match-ID calls)
 
     @Column(nullable = false, length = 64)
     private String riotId;
 
     @Column(nullable = false, length = 32)
-    private String state; // QUEUED, FETCHING_MATCH_IDS, FETCHING_MATCH_DETAILS, DONE, FAILED
+    private String state; // QUEUED, FETCHING_MATCH_IDS, FETCHING_MATCH_DETAILS, DONE, PARTIAL, CANCELLED, FAILED
 
     @Column(nullable = false)
     private int matchIdsFound;
@@ -41,6 +41,10 @@ public class PlayerYearEntity {
     @Column(nullable = false, length = 512)
     private String message;
 
+    // Set once the player's own match-ID list was fetched from Riot. Rows linked through a
+    // lobby-mate's match (see MatchIngestService) don't count as a complete list.
+    private Instant matchIdsSyncedAt;
+
     @Column(nullable = false)
     private Instant createdAt;
 
@@ -82,6 +86,8 @@ public class PlayerYearEntity {
     public void setSummaryReady(boolean summaryReady) { this.summaryReady = summaryReady; }
     public String getMessage() { return message; }
     public void setMessage(String message) { this.message = message; }
+    public Instant getMatchIdsSyncedAt() { return matchIdsSyncedAt; }
+    public void setMatchIdsSyncedAt(Instant matchIdsSyncedAt) { this.matchIdsSyncedAt = matchIdsSyncedAt; }
     public Instant getCreatedAt() { return createdAt; }
     public Instant getUpdatedAt() { return updatedAt; }
 }
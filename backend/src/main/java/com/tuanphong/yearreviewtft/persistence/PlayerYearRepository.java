@@ -1,22 +1,123 @@
 package com.tuanphong.yearreviewtft.persistence;
 
-import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PlayerYearRepository extends JpaRepository<PlayerYearEntity, Long> {
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Transactional // ensures transaction is active for the lock
-    @Query("select p from PlayerYearEntity p where p.puuid = :puuid and p.year = :year")
-    Optional<PlayerYearEntity> lockByPuuidAndYear(@Param("puuid") String puuid, @Param("year") int year);
+    /**
+     * Claims the (puuid, year) job in one statement: inserts the row, or resets an existing one, in state
+     * FETCHING_MATCH_IDS unless it is running or done (a PARTIAL summary is resumed). Returns the new state when
+     * the caller won the claim, empty otherwise (the row lock taken by ON CONFLICT serializes concurrent claims).
+     * The claim counts as the first poll of the new job.
+     */
+    @Transactional
+    @Query(value = """
+        INSERT INTO player_year (puuid, year, platform, riot_id, state, message,
+                                 match_ids_found, matches_cached, summary_ready, created_at, updated_at,
+                                 cancel_requested, last_polled_at, job_id)
+        VALUES (:puuid, :year, :platform, :riotId, 'FETCHING_MATCH_IDS', 'Starting...', 0, 0, false, now(), now(),
+                false, now(), :jobId)
+        ON CONFLICT (puuid, year) DO UPDATE SET
+            platform = EXCLUDED.platform,
+            riot_id = EXCLUDED.riot_id,
+            state = EXCLUDED.state,
+            message = EXCLUDED.message,
+            match_ids_found = 0,
+            matches_cached = 0,
+            updated_at = now(),
+            cancel_requested = false,
+            last_polled_at = now(),
+            job_id = EXCLUDED.job_id
+        WHERE (NOT player_year.summary_ready OR player_year.state = 'PARTIAL')
+          AND player_year.state NOT IN ('DONE', 'FETCHING_MATCH_IDS', 'SAVING_MATCH_IDS',
+                                        'FETCHING_MATCH_DETAILS', 'COMPUTING')
+        RETURNING state
+        """, nativeQuery = true)
+    Optional<String> claimJob(
+            @Param("puuid") String puuid,
+            @Param("year") int year,
+            @Param("platform") String platform,
+            @Param("riotId") String riotId,
+            @Param("jobId") String jobId
+    );
 
     Optional<PlayerYearEntity> findByPuuidAndYear(String puuid, int year);
 
     Optional<PlayerYearEntity> findByRiotIdAndYear(String riotId, int year);
+
+    /** Finished players whose match IDs were last synced before {@code syncedBefore}, most recently active first. */
+    @Query(value = """
+        SELECT puuid FROM player_year
+        WHERE year = :year AND state = 'DONE' AND summary_ready
+          AND (match_ids_synced_at IS NULL OR match_ids_synced_at < :syncedBefore)
+        ORDER BY updated_at DESC
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<String> findRefreshCandidates(
+            @Param("year") int year,
+            @Param("syncedBefore") Instant syncedBefore,
+            @Param("limit") int limit
+    );
+
+    /** Asks the running job of the player to stop; 1 if {@code jobId} is the player's running job. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE player_year SET cancel_requested = true, updated_at = now()
+        WHERE puuid = :puuid AND year = :year AND job_id = :jobId
+          AND state IN ('FETCHING_MATCH_IDS', 'SAVING_MATCH_IDS', 'FETCHING_MATCH_DETAILS', 'COMPUTING')
+        """, nativeQuery = true)
+    int requestCancel(@Param("puuid") String puuid, @Param("year") int year, @Param("jobId") String jobId);
+
+    /** A client is still waiting for the player's job. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE player_year SET last_polled_at = now()
+        WHERE puuid = :puuid AND year = :year
+          AND state IN ('FETCHING_MATCH_IDS', 'SAVING_MATCH_IDS', 'FETCHING_MATCH_DETAILS', 'COMPUTING')
+        """, nativeQuery = true)
+    int touchPolled(@Param("puuid") String puuid, @Param("year") int year);
+
+    /** Cancel requests of the players, and whether nobody polled them since {@code polledBefore}. */
+    @Query(value = """
+        SELECT puuid, cancel_requested AS cancelled, COALESCE(last_polled_at, updated_at) < :polledBefore AS idle
+        FROM player_year
+        WHERE year = :year AND puuid IN (:puuids)
+        """, nativeQuery = true)
+    List<JobSignal> findJobSignals(
+            @Param("year") int year,
+            @Param("puuids") Collection<String> puuids,
+            @Param("polledBefore") Instant polledBefore
+    );
+
+    interface JobSignal {
+        String getPuuid();
+        boolean getCancelled();
+        boolean getIdle();
+    }
+
+    /** Compare-and-set of the job state; 1 if the row was in state {@code from}. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE player_year SET state = :to, message = :message, updated_at = now()
+        WHERE puuid = :puuid AND year = :year AND state = :from
+        """, nativeQuery = true)
+    int changeState(
+            @Param("puuid") String puuid,
+            @Param("year") int year,
+            @Param("from") String from,
+            @Param("to") String to,
+            @Param("message") String message
+    );
 }
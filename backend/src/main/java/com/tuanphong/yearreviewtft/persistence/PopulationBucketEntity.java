@@ -0,0 +1,41 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import jakarta.persistence.*;
+
+/**
+ * One bucket of a per-year global histogram (avg placement, games played, top-4 rate, trait popularity).
+ * Counts are only ever changed through {@link PopulationBucketRepository#addToBucket} so several
+ * instances can flush their deltas without overwriting each other; the nightly rebuild replaces them
+ * under an advisory lock.
+ */
+@Entity
+@Table(
+        name = "population_bucket",
+        uniqueConstraints = @UniqueConstraint(name = "uk_population_bucket", columnNames = {"year", "metric", "bucket"})
+)
+public class PopulationBucketEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private int year;
+
+    @Column(nullable = false, length = 32)
+    private String metric;
+
+    @Column(nullable = false, length = 96)
+    private String bucket; // numeric bucket index, or trait name for "traits"
+
+    @Column(nullable = false)
+    private long count;
+
+    // getters
+
+    public Long getId() { return id; }
+    public int getYear() { return year; }
+    public String getMetric() { return metric; }
+    public String getBucket() { return bucket; }
+    public long getCount() { return count; }
+}
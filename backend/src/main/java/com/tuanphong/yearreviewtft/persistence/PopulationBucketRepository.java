@@ -0,0 +1,55 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface PopulationBucketRepository extends JpaRepository<PopulationBucketEntity, Long> {
+
+    List<PopulationBucketEntity> findByYear(int year);
+
+    @Query("select distinct b.year from PopulationBucketEntity b")
+    List<Integer> findYears();
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO population_bucket (year, metric, bucket, count)
+        VALUES (:year, :metric, :bucket, :delta)
+        ON CONFLICT (year, metric, bucket) DO UPDATE SET count = population_bucket.count + EXCLUDED.count
+        """, nativeQuery = true)
+    void addToBucket(
+            @Param("year") int year,
+            @Param("metric") String metric,
+            @Param("bucket") String bucket,
+            @Param("delta") long delta
+    );
+
+    /** Replaces a bucket's count; only the nightly rebuild may do this, under {@link #lockYear}. */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO population_bucket (year, metric, bucket, count)
+        VALUES (:year, :metric, :bucket, :count)
+        ON CONFLICT (year, metric, bucket) DO UPDATE SET count = EXCLUDED.count
+        """, nativeQuery = true)
+    void setBucket(
+            @Param("year") int year,
+            @Param("metric") String metric,
+            @Param("bucket") String bucket,
+            @Param("count") long count
+    );
+
+    /** Serializes rebuilds of a year across instances; held until the surrounding transaction ends. */
+    @Query(value = "SELECT true FROM pg_advisory_xact_lock(hashtext('population_bucket'), :year)", nativeQuery = true)
+    Boolean lockYear(@Param("year") int year);
+
+    @Modifying
+    @Transactional
+    @Query("delete from PopulationBucketEntity b where b.year = :year")
+    void deleteByYear(@Param("year") int year);
+}
@@ -26,11 +26,24 @@ public class YearSummaryEntity {
     @Column(columnDefinition = "text", nullable = false)
     private String summaryJson;
 
+    // WrappedSummaryService.SUMMARY_VERSION the document was computed with
+    @Column(nullable = false)
+    private int summaryVersion;
+
+    // some of the player's match payloads were missing when it was computed
+    @Column(nullable = false)
+    private boolean partial;
+
     @PrePersist
     void prePersist() {
         computedAt = Instant.now();
     }
 
+    @PreUpdate
+    void preUpdate() {
+        computedAt = Instant.now(); // a recompute is a new version of the document
+    }
+
     // getters/setters
     public Long getId() { return id; }
     public String getPuuid() { return puuid; }
@@ -40,4 +53,9 @@ public class YearSummaryEntity {
     public Instant getComputedAt() { return computedAt; }
     public String getSummaryJson() { return summaryJson; }
     public void setSummaryJson(String summaryJson) { this.summaryJson = summaryJson; }
+    public int getSummaryVersion() { return summaryVersion; }
+    public void setSummaryVersion(int summaryVersion) { this.summaryVersion = summaryVersion; }
+
+    public boolean isPartial() { return partial; }
+    public void setPartial(boolean partial) { this.partial = partial; }
 }
@@ -1,9 +1,54 @@
 package com.tuanphong.yearreviewtft.persistence;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface YearSummaryRepository extends JpaRepository<YearSummaryEntity, Long> {
     Optional<YearSummaryEntity> findByPuuidAndYear(String puuid, int year);
+
+    @Query("select s.computedAt from YearSummaryEntity s where s.puuid = :puuid and s.year = :year")
+    Optional<Instant> findComputedAt(@Param("puuid") String puuid, @Param("year") int year);
+
+    @Query("select s.summaryVersion from YearSummaryEntity s where s.puuid = :puuid and s.year = :year")
+    Optional<Integer> findSummaryVersion(@Param("puuid") String puuid, @Param("year") int year);
+
+    /** Years the player has a summary for, with the aggregation version of each and whether it is partial. */
+    @Query("""
+        select s.year as year, s.summaryVersion as summaryVersion, s.partial as partial
+        from YearSummaryEntity s where s.puuid = :puuid
+        """)
+    List<YearVersion> findYearVersions(@Param("puuid") String puuid);
+
+    interface YearVersion {
+        int getYear();
+        int getSummaryVersion();
+        boolean getPartial();
+    }
+
+    // keyset paging for background scans over all summaries of a year
+    List<YearSummaryEntity> findTop500ByYearAndIdGreaterThanOrderByIdAsc(int year, long id);
+
+    // same, id and JSON only: no managed entities pile up when all pages are read in one transaction
+    @Query("""
+        select s.id as id, s.summaryJson as summaryJson from YearSummaryEntity s
+        where s.year = :year and s.id > :id order by s.id
+        """)
+    List<SummaryRow> findSummaryPage(@Param("year") int year, @Param("id") long id, Limit limit);
+
+    interface SummaryRow {
+        Long getId();
+        String getSummaryJson();
+    }
+
+    // same, only summaries computed by an older aggregation version
+    List<YearSummaryEntity> findTop500ByYearAndSummaryVersionLessThanAndIdGreaterThanOrderByIdAsc(int year, int version, long id);
+
+    @Query("select distinct s.year from YearSummaryEntity s")
+    List<Integer> findYears();
 }
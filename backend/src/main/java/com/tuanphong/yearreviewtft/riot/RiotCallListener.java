@@ -0,0 +1,21 @@
+package com.tuanphong.yearreviewtft.riot;
+
+import reactor.util.context.Context;
+
+import java.util.function.Function;
+
+/**
+ * Notified of every Riot HTTP attempt made on behalf of a caller, e.g. to count calls per job. Passed through
+ * the Reactor context: {@code tftMatchService.fetchMatchDetail(id).contextWrite(RiotCallListener.with(l))}.
+ */
+public interface RiotCallListener {
+
+    void riotCall();
+
+    /** The attempt was answered with 429 and is retried (or the caller has to wait). */
+    void rateLimited();
+
+    static Function<Context, Context> with(RiotCallListener listener) {
+        return ctx -> ctx.put(RiotCallListener.class, listener);
+    }
+}
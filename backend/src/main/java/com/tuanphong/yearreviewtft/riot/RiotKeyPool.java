@@ -0,0 +1,243 @@
+package com.tuanphong.yearreviewtft.riot;
+
+import com.tuanphong.yearreviewtft.config.RiotProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Spreads Riot calls over all configured API keys (riot.api.keys, or the single riot.api.key), so throughput
+ * grows with the number of keys. Installed per routing region as a filter on that region's WebClient
+ * ({@link #forRegion}): every HTTP attempt, including retries, gets the X-Riot-Token of the least-loaded usable key.
+ * <p>
+ * Riot counts rate limits per key and region, so each region keeps its own state per key: the application
+ * rate-limit windows Riot reports (X-App-Rate-Limit / -Count) together with its own sends, so load is known
+ * between responses; a 429 cools the key down for its Retry-After in that region only. A 401/403 (revoked or
+ * expired key) quarantines the key everywhere for riot.api.key-quarantine. Meters are tagged with the region and
+ * the key's index ({@code k0}, {@code k1}, ...), never the key itself.
+ */
+@Component
+public class RiotKeyPool {
+
+    private static final Logger log = LoggerFactory.getLogger(RiotKeyPool.class);
+
+    private final Map<RiotRegion, List<KeyState>> keysByRegion = new EnumMap<>(RiotRegion.class);
+    private final long quarantineMillis;
+    private final MeterRegistry registry;
+
+    public RiotKeyPool(RiotProperties properties, MeterRegistry registry) {
+        this.registry = registry;
+        this.quarantineMillis = properties.keyQuarantine().toMillis();
+
+        List<String> configured = properties.keys() == null || properties.keys().isEmpty()
+                ? (properties.key() == null ? List.of() : List.of(properties.key()))
+                : properties.keys();
+        List<Credential> credentials = new ArrayList<>();
+        for (String key : configured) {
+            if (key == null || key.isBlank()) continue;
+            credentials.add(new Credential("k" + credentials.size(), key.trim()));
+        }
+        for (RiotRegion region : RiotRegion.values()) {
+            List<KeyState> keys = new ArrayList<>();
+            for (Credential c : credentials) {
+                KeyState k = new KeyState(region, c);
+                keys.add(k);
+                String r = region.host();
+                Gauge.builder("riot.key.load", k, s -> s.load(System.currentTimeMillis()))
+                        .tag("region", r).tag("key", c.id).register(registry);
+                Gauge.builder("riot.key.inflight", k, s -> s.inFlight.get())
+                        .tag("region", r).tag("key", c.id).register(registry);
+                Gauge.builder("riot.key.quarantined", k, s -> s.credential.quarantinedUntil > System.currentTimeMillis() ? 1 : 0)
+                        .tag("region", r).tag("key", c.id).register(registry);
+            }
+            keysByRegion.put(region, keys);
+        }
+    }
+
+    public int size() {
+        return keysByRegion.get(RiotRegion.EUROPE).size();
+    }
+
+    /** The filter for the WebClient of {@code region}; it only draws on that region's budgets. */
+    public ExchangeFilterFunction forRegion(RiotRegion region) {
+        return (request, next) -> filter(region, request, next);
+    }
+
+    private Mono<ClientResponse> filter(RiotRegion region, ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            KeyState key = pick(region, System.currentTimeMillis());
+            if (key == null) return next.exchange(request); // no key configured; Riot answers 401
+
+            ClientRequest withKey = ClientRequest.from(request)
+                    .headers(h -> h.set("X-Riot-Token", key.credential.key))
+                    .build();
+            return next.exchange(withKey)
+                    .doOnNext(resp -> observe(key, resp))
+                    .doOnError(e -> count(key, "error"))
+                    .doFinally(s -> key.inFlight.decrementAndGet());
+        });
+    }
+
+    /**
+     * Least-loaded key of the region that is neither quarantined nor cooling down; if there is none, the one
+     * free soonest.
+     */
+    synchronized KeyState pick(RiotRegion region, long now) {
+        List<KeyState> keys = keysByRegion.get(region);
+        if (keys.isEmpty()) return null;
+
+        KeyState best = keys.stream()
+                .filter(k -> k.credential.quarantinedUntil <= now && k.cooldownUntil <= now)
+                .min(Comparator.<KeyState>comparingDouble(k -> k.load(now)).thenComparingInt(k -> k.inFlight.get()))
+                .orElseGet(() -> keys.stream()
+                        .min(Comparator.comparingLong(k -> Math.max(k.credential.quarantinedUntil, k.cooldownUntil)))
+                        .orElseThrow());
+        best.sent(now);
+        best.inFlight.incrementAndGet();
+        return best;
+    }
+
+    private void observe(KeyState key, ClientResponse resp) {
+        long now = System.currentTimeMillis();
+        HttpHeaders h = resp.headers().asHttpHeaders();
+        key.observeLimits(h.getFirst("X-App-Rate-Limit"), h.getFirst("X-App-Rate-Limit-Count"), now);
+
+        int status = resp.statusCode().value();
+        if (status == 429) {
+            long retryAfter = parseLong(h.getFirst(HttpHeaders.RETRY_AFTER), 2);
+            key.cooldownUntil = Math.max(key.cooldownUntil, now + retryAfter * 1000);
+            count(key, "rate_limited");
+        } else if (status == 401 || status == 403) {
+            Credential c = key.credential;
+            if (c.quarantinedUntil <= now) {
+                log.warn("Riot API key {} answered {}; quarantined for {} s", c.id, status, quarantineMillis / 1000);
+            }
+            c.quarantinedUntil = now + quarantineMillis;
+            count(key, "rejected");
+        } else {
+            count(key, resp.statusCode().isError() ? "error" : "success");
+        }
+    }
+
+    private void count(KeyState key, String outcome) {
+        Counter.builder("riot.key.requests").tag("region", key.region.host()).tag("key", key.credential.id)
+                .tag("outcome", outcome).register(registry).increment();
+    }
+
+    private static long parseLong(String s, long fallback) {
+        if (s == null) return fallback;
+        try {
+            return Long.parseLong(s.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    /** A configured key; being revoked is not a per-region matter. */
+    static final class Credential {
+        final String id;
+        final String key;
+        volatile long quarantinedUntil;
+
+        Credential(String id, String key) {
+            this.id = id;
+            this.key = key;
+        }
+    }
+
+    /** A key's budget in one region. */
+    static final class KeyState {
+        final RiotRegion region;
+        final Credential credential;
+        final AtomicInteger inFlight = new AtomicInteger();
+        volatile long cooldownUntil;
+        private List<Window> windows = List.of(); // unknown until Riot answered once
+
+        KeyState(RiotRegion region, Credential credential) {
+            this.region = region;
+            this.credential = credential;
+        }
+
+        /** Fullest rate-limit window, 0..1 (above 1 when Riot has not caught up); 0 while limits are unknown. */
+        synchronized double load(long now) {
+            double max = 0;
+            for (Window w : windows) {
+                w.roll(now);
+                max = Math.max(max, (double) w.count / w.limit);
+            }
+            return max;
+        }
+
+        synchronized void sent(long now) {
+            for (Window w : windows) {
+                w.roll(now);
+                w.count++;
+            }
+        }
+
+        /** Adopts the windows from "20:1,100:120" and Riot's counts from "3:1,40:120" when they are higher. */
+        synchronized void observeLimits(String limits, String counts, long now) {
+            if (limits == null) return;
+            List<Window> parsed = new ArrayList<>();
+            for (String part : limits.split(",")) {
+                String[] lw = part.trim().split(":");
+                if (lw.length != 2) continue;
+                long seconds = parseLong(lw[1], 0);
+                int limit = (int) parseLong(lw[0], 1);
+                Window w = windows.stream().filter(x -> x.millis == seconds * 1000).findFirst()
+                        .orElseGet(() -> new Window(seconds * 1000, now)); // counts this response's request
+                w.limit = Math.max(1, limit);
+                parsed.add(w);
+            }
+            if (counts != null) {
+                for (String part : counts.split(",")) {
+                    String[] cw = part.trim().split(":");
+                    if (cw.length != 2) continue;
+                    long millis = parseLong(cw[1], 0) * 1000;
+                    for (Window w : parsed) {
+                        if (w.millis != millis) continue;
+                        w.roll(now);
+                        w.count = Math.max(w.count, (int) parseLong(cw[0], 0));
+                    }
+                }
+            }
+            windows = parsed;
+        }
+    }
+
+    private static final class Window {
+        final long millis;
+        int limit = 1;
+        long start;
+        int count;
+
+        Window(long millis, long start) {
+            this.millis = millis;
+            this.start = start;
+            this.count = 1;
+        }
+
+        void roll(long now) {
+            if (now - start >= millis) {
+                start = now;
+                count = 0;
+            }
+        }
+    }
+}
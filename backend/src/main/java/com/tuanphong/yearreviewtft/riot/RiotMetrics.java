@@ -0,0 +1,73 @@
+package com.tuanphong.yearreviewtft.riot;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Riot API meters, tagged by endpoint (account, match-ids, match) so usage can be planned against the
+ * per-method rate limits:
+ * <ul>
+ *   <li>{@code riot.request} timer per HTTP attempt, with outcome success / rate_limited / timeout /
+ *       client_error / server_error / error,</li>
+ *   <li>{@code riot.rate_limited} counter of 429 answers,</li>
+ *   <li>{@code riot.retries} counter of retried attempts.</li>
+ * </ul>
+ */
+@Component
+public class RiotMetrics {
+
+    private final MeterRegistry registry;
+
+    public RiotMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Times each subscription of {@code call}; use upstream of retryWhen so every attempt is measured.
+     * A {@link RiotCallListener} in the subscriber context is notified as well.
+     */
+    <T> Mono<T> timed(String endpoint, Mono<T> call) {
+        return Mono.deferContextual(ctx -> {
+            RiotCallListener listener = ctx.getOrDefault(RiotCallListener.class, null);
+            if (listener != null) listener.riotCall();
+
+            Timer.Sample sample = Timer.start(registry);
+            return call
+                    .doOnSuccess(v -> stop(sample, endpoint, "success"))
+                    .doOnError(e -> {
+                        String outcome = outcome(e);
+                        stop(sample, endpoint, outcome);
+                        if (listener != null && "rate_limited".equals(outcome)) listener.rateLimited();
+                    });
+        });
+    }
+
+    void retried(String endpoint) {
+        Counter.builder("riot.retries").tag("endpoint", endpoint).register(registry).increment();
+    }
+
+    private void stop(Timer.Sample sample, String endpoint, String outcome) {
+        sample.stop(Timer.builder("riot.request")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(registry));
+        if ("rate_limited".equals(outcome)) {
+            Counter.builder("riot.rate_limited").tag("endpoint", endpoint).register(registry).increment();
+        }
+    }
+
+    private static String outcome(Throwable e) {
+        if (e instanceof TftMatchService.RiotRateLimitedException) return "rate_limited";
+        if (e instanceof TimeoutException) return "timeout";
+        if (e instanceof WebClientResponseException w) {
+            return w.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        }
+        return "error";
+    }
+}
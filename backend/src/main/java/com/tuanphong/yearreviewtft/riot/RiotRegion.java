@@ -0,0 +1,44 @@
+package com.tuanphong.yearreviewtft.riot;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Riot's regional routing values. account-v1 and tft-match-v1 are served per region, and Riot counts rate
+ * limits per region, so every region gets its own HTTP client and key budget (see RiotKeyPool).
+ */
+public enum RiotRegion {
+    AMERICAS, ASIA, EUROPE, SEA;
+
+    private static final Map<String, RiotRegion> BY_PLATFORM = Map.ofEntries(
+            Map.entry("BR1", AMERICAS), Map.entry("LA1", AMERICAS), Map.entry("LA2", AMERICAS),
+            Map.entry("NA1", AMERICAS),
+            Map.entry("JP1", ASIA), Map.entry("KR", ASIA),
+            Map.entry("EUN1", EUROPE), Map.entry("EUW1", EUROPE), Map.entry("ME1", EUROPE),
+            Map.entry("RU", EUROPE), Map.entry("TR1", EUROPE),
+            Map.entry("OC1", SEA), Map.entry("PH2", SEA), Map.entry("SG2", SEA), Map.entry("TH2", SEA),
+            Map.entry("TW2", SEA), Map.entry("VN2", SEA)
+    );
+
+    /** Host prefix, as in europe.api.riotgames.com. */
+    public String host() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /** account-v1 has no SEA cluster; any other cluster knows every account. */
+    public RiotRegion accountRoute() {
+        return this == SEA ? ASIA : this;
+    }
+
+    /** Region of a platform (EUW1, NA1, KR, ...); unknown or missing platforms are routed to EUROPE. */
+    public static RiotRegion ofPlatform(String platform) {
+        if (platform == null) return EUROPE;
+        return BY_PLATFORM.getOrDefault(platform.trim().toUpperCase(Locale.ROOT), EUROPE);
+    }
+
+    /** Region of a match ID such as EUW1_7412345678, by its platform prefix. */
+    public static RiotRegion ofMatchId(String matchId) {
+        int sep = matchId.indexOf('_');
+        return ofPlatform(sep < 0 ? null : matchId.substring(0, sep));
+    }
+}
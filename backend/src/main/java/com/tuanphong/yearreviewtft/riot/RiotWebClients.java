@@ -0,0 +1,16 @@
+package com.tuanphong.yearreviewtft.riot;
+
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Map;
+
+/**
+ * One WebClient per routing region, each on its own HTTP client (connection pool) and key budgets, so a
+ * surge of calls to one region neither queues behind nor rate-limits the others.
+ */
+public record RiotWebClients(Map<RiotRegion, WebClient> byRegion) {
+
+    public WebClient of(RiotRegion region) {
+        return byRegion.get(region);
+    }
+}
@@ -2,11 +2,11 @@ package com.tuanphong.yearreviewtft.riot;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.tuanphong.yearreviewtft.api.dto.RiotAccountResponse;
+import com.tuanphong.yearreviewtft.config.RiotProperties;
 import org.apache.tomcat.util.buf.UriUtil;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriUtils;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
@@ -14,6 +14,7 @@ import reactor.util.retry.Retry;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -22,23 +23,31 @@ import java.util.List;
 @Service
 public class TftMatchService {
 
-    private static final String EUROPE = "https://europe.api.riotgames.com";
+    private final RiotWebClients riotWebClients;
+    private final String baseUrl; // host template, {region} = routing region
+    private final Duration requestTimeout;
+    private final RiotMetrics metrics;
 
-    private final WebClient riotWebClient;
-
-    public TftMatchService(WebClient riotWebClient) {
-        this.riotWebClient = riotWebClient;
+    public TftMatchService(RiotWebClients riotWebClients, RiotProperties riotProperties, RiotMetrics metrics) {
+        this.riotWebClients = riotWebClients;
+        this.baseUrl = riotProperties.baseUrl();
+        this.requestTimeout = riotProperties.requestTimeout();
+        this.metrics = metrics;
     }
 
     // ---------- Public API ----------
 
-    public Mono<String> resolvePuuid(String riotId) {
+    /**
+     * @param platform the player's platform (EUW1, NA1, ...), which picks the routing region
+     */
+    public Mono<String> resolvePuuid(String riotId, String platform) {
         RiotIdParts parts = splitAndEncodeRiotId(riotId);
+        RiotRegion region = RiotRegion.ofPlatform(platform).accountRoute();
 
-        String url = EUROPE + "/riot/account/v1/accounts/by-riot-id/"
+        String url = baseUrl(region) + "/riot/account/v1/accounts/by-riot-id/"
                 + parts.gameNameEncoded() + "/" + parts.tagLineEncoded();
 
-        return getJson(url)
+        return getJson(region, "account", url)
                 .map(json -> {
                     JsonNode puuid = json.get("puuid");
                     if (puuid == null || puuid.asText().isBlank()) {
@@ -48,23 +57,34 @@ public class TftMatchService {
                 });
     }
 
-    public Mono<List<String>> fetchAllMatchIdsForYear(String puuid, int year) {
+    public Mono<List<String>> fetchAllMatchIdsForYear(String puuid, String platform, int year) {
+        return fetchMatchIdsForYear(puuid, platform, year, null);
+    }
+
+    /**
+     * Match IDs of the year played at or after {@code since} (whole year if null), newest first.
+     */
+    public Mono<List<String>> fetchMatchIdsForYear(String puuid, String platform, int year, Instant since) {
+        RiotRegion region = RiotRegion.ofPlatform(platform);
         long[] range = yearRangeEpochSecondsBerlin(year);
-        long startTime = range[0];
+        long startTime = since == null ? range[0] : Math.max(range[0], since.getEpochSecond());
         long endTime = range[1];
 
-        return Mono.fromSupplier(() -> {
+        // pages are fetched blocking, so the caller's context (RiotCallListener) is handed on explicitly
+        return Mono.deferContextual(ctx -> Mono.fromSupplier(() -> {
             ArrayList<String> all = new ArrayList<>();
             int start = 0;
 
             while (true) {
-                String url = EUROPE + "/tft/match/v1/matches/by-puuid/" + puuid
+                String url = baseUrl(region) + "/tft/match/v1/matches/by-puuid/" + puuid
                         + "/ids?start=" + start
                         + "&count=100"
                         + "&startTime=" + startTime
                         + "&endTime=" + endTime;
 
-                List<String> page = get(url, new ParameterizedTypeReference<List<String>>() {}).block();
+                List<String> page = get(region, "match-ids", url, new ParameterizedTypeReference<List<String>>() {})
+                        .contextWrite(ctx)
+                        .block();
 
                 if (page == null || page.isEmpty()) break;
 
@@ -77,22 +97,28 @@ public class TftMatchService {
             }
 
             return all;
-        });
+        }));
     }
 
+    /** Routed by the platform prefix of the match ID (EUW1_..., NA1_...). */
     public Mono<JsonNode> fetchMatchDetail(String matchId) {
-        String url = EUROPE + "/tft/match/v1/matches/" + matchId;
-        return getJson(url);
+        RiotRegion region = RiotRegion.ofMatchId(matchId);
+        String url = baseUrl(region) + "/tft/match/v1/matches/" + matchId;
+        return getJson(region, "match", url);
     }
 
     // ---------- Internal HTTP helpers (NO double-consume) ----------
 
-    private Mono<JsonNode> getJson(String url) {
-        return get(url, JsonNode.class);
+    private String baseUrl(RiotRegion region) {
+        return baseUrl.replace("{region}", region.host());
+    }
+
+    private Mono<JsonNode> getJson(RiotRegion region, String endpoint, String url) {
+        return get(region, endpoint, url, JsonNode.class);
     }
 
-    private <T> Mono<T> get(String url, Class<T> clazz) {
-        return riotWebClient.get()
+    private <T> Mono<T> get(RiotRegion region, String endpoint, String url, Class<T> clazz) {
+        Mono<T> call = riotWebClients.of(region).get()
                 .uri(url)
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
@@ -104,11 +130,12 @@ public class TftMatchService {
                     return Mono.error(new RiotRateLimitedException(retryAfter));
                 })
                 .bodyToMono(clazz)
-                .retryWhen(retry429());
+                .timeout(requestTimeout);
+        return metrics.timed(endpoint, call).retryWhen(retry429(endpoint));
     }
 
-    private <T> Mono<T> get(String url, ParameterizedTypeReference<T> typeRef) {
-        return riotWebClient.get()
+    private <T> Mono<T> get(RiotRegion region, String endpoint, String url, ParameterizedTypeReference<T> typeRef) {
+        Mono<T> call = riotWebClients.of(region).get()
                 .uri(url)
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
@@ -120,13 +147,15 @@ public class TftMatchService {
                     return Mono.error(new RiotRateLimitedException(retryAfter));
                 })
                 .bodyToMono(typeRef)
-                .retryWhen(retry429());
+                .timeout(requestTimeout);
+        return metrics.timed(endpoint, call).retryWhen(retry429(endpoint));
     }
 
-    private static Retry retry429() {
+    private Retry retry429(String endpoint) {
         return Retry.backoff(6, Duration.ofSeconds(2))
                 .filter(ex -> ex instanceof RiotRateLimitedException)
                 .transientErrors(true)
+                .doBeforeRetry(signal -> metrics.retried(endpoint))
                 .onRetryExhaustedThrow((spec, signal) -> signal.failure());
     }
 
@@ -150,7 +179,7 @@ public class TftMatchService {
         return new RiotIdParts(gameNameEnc, tagLineEnc);
     }
 
-    public RiotAccountResponse resolveRiotId(String riotId) {
+    public Mono<RiotAccountResponse> resolveRiotId(String riotId, String platform) {
         String[] parts = riotId.split("#", 2);
         if (parts.length != 2) {
             throw new IllegalArgumentException("Invalid Riot ID format. Expected 'GameName#TAG'.");
@@ -158,29 +187,26 @@ public class TftMatchService {
 
         String gameName = parts[0];
         String tagLine = parts[1];
+        RiotRegion region = RiotRegion.ofPlatform(platform).accountRoute();
 
         String url = String.format(
-                "https://europe.api.riotgames.com/riot/account/v1/accounts/by-riot-id/%s/%s",
+                "%s/riot/account/v1/accounts/by-riot-id/%s/%s",
+                baseUrl(region),
                 UriUtils.encode(gameName, StandardCharsets.UTF_8),
                 UriUtils.encode(tagLine, StandardCharsets.UTF_8)
         );
 
-        var response = riotWebClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(RiotAccountResponse.class)
-                .block();
-
-        if (response == null) {
-            throw new IllegalStateException("No response from Riot API.");
-        }
-
-        return response;
+        return metrics.timed("account", riotWebClients.of(region).get()
+                        .uri(url)
+                        .retrieve()
+                        .bodyToMono(RiotAccountResponse.class)
+                        .timeout(requestTimeout))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No response from Riot API.")));
     }
 
     private record RiotIdParts(String gameNameEncoded, String tagLineEncoded) {}
 
-    private static class RiotRateLimitedException extends RuntimeException {
+    static class RiotRateLimitedException extends RuntimeException {
         private final long retryAfterSeconds;
 
         RiotRateLimitedException(long retryAfterSeconds) {
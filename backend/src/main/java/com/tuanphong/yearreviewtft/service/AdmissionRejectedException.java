@@ -0,0 +1,29 @@
+package com.tuanphong.yearreviewtft.service;
+
+import java.time.Instant;
+
+/**
+ * A job request turned away by {@link JobAdmission}; answered with 429 (client over its limit) or 503
+ * (service saturated) and a Retry-After header.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final int status;
+    private final long retryAfterSeconds;
+    private final Instant estimatedStartAt;
+    private final int queueDepth;
+
+    public AdmissionRejectedException(int status, String message, long retryAfterSeconds,
+                                      Instant estimatedStartAt, int queueDepth) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.estimatedStartAt = estimatedStartAt;
+        this.queueDepth = queueDepth;
+    }
+
+    public int status() { return status; }
+    public long retryAfterSeconds() { return retryAfterSeconds; }
+    public Instant estimatedStartAt() { return estimatedStartAt; }
+    public int queueDepth() { return queueDepth; }
+}
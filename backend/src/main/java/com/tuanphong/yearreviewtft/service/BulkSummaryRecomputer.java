@@ -0,0 +1,150 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.BulkRecomputeProperties;
+import com.tuanphong.yearreviewtft.config.MatchArchiveProperties;
+import com.tuanphong.yearreviewtft.persistence.MatchArchive;
+import com.tuanphong.yearreviewtft.persistence.MatchCacheRepository;
+import com.tuanphong.yearreviewtft.persistence.YearSummaryEntity;
+import com.tuanphong.yearreviewtft.persistence.YearSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes the saved summaries of a year after the aggregation logic changed, enabled with
+ * summary.bulk-recompute.year: by default only those older than {@link WrappedSummaryService#SUMMARY_VERSION},
+ * started at most summary.bulk-recompute.per-second so the database and users' jobs keep their headroom.
+ * match_cache is first exported into the {@link MatchArchive} (rows already there are skipped, nothing is
+ * deleted), so the recompute itself reads payloads from the memory-mapped segments instead of pulling every
+ * jsonb row through JDBC.
+ */
+@Service
+@ConditionalOnProperty(prefix = "summary.bulk-recompute", name = "year")
+public class BulkSummaryRecomputer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkSummaryRecomputer.class);
+
+    private final YearSummaryRepository yearSummaryRepository;
+    private final MatchCacheRepository matchCacheRepository;
+    private final MatchArchive archive;
+    private final WrappedSummaryService wrappedSummaryService;
+    private final BulkRecomputeProperties properties;
+    private final MatchArchiveProperties archiveProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final RecomputeThrottle throttle;
+
+    public BulkSummaryRecomputer(
+            YearSummaryRepository yearSummaryRepository,
+            MatchCacheRepository matchCacheRepository,
+            MatchArchive archive,
+            WrappedSummaryService wrappedSummaryService,
+            BulkRecomputeProperties properties,
+            MatchArchiveProperties archiveProperties,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.yearSummaryRepository = yearSummaryRepository;
+        this.matchCacheRepository = matchCacheRepository;
+        this.archive = archive;
+        this.wrappedSummaryService = wrappedSummaryService;
+        this.properties = properties;
+        this.archiveProperties = archiveProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.throttle = new RecomputeThrottle(properties.perSecond());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("summary-bulk-recompute").start(() -> {
+            try {
+                if (properties.export()) exportMatchCache();
+                recomputeYear(properties.year());
+            } catch (Exception e) {
+                log.warn("Bulk recompute stopped: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Copies every match_cache payload missing from the archive into it, in the stored compressed form.
+     */
+    public long exportMatchCache() {
+        String after = "";
+        long exported = 0;
+        while (true) {
+            List<String> ids = matchCacheRepository.findMatchIdsAfter(after, archiveProperties.batchSize());
+            if (ids.isEmpty()) break;
+            after = ids.get(ids.size() - 1);
+
+            List<MatchArchive.Entry> entries = transactionTemplate.execute(tx -> {
+                List<MatchArchive.Entry> out = new ArrayList<>();
+                for (String id : ids) {
+                    if (archive.contains(id)) continue;
+                    matchCacheRepository.findEncodedPayload(id).ifPresent(p -> out.add(new MatchArchive.Entry(id, p)));
+                }
+                return out;
+            });
+            if (entries == null || entries.isEmpty()) continue;
+
+            archive.append(entries);
+            exported += entries.size();
+        }
+        log.info("Exported {} match_cache payloads to the archive ({} archived in total)", exported, archive.size());
+        return exported;
+    }
+
+    public long recomputeYear(int year) throws InterruptedException {
+        AtomicLong done = new AtomicLong();
+        long started = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(properties.parallelism());
+        try {
+            long lastId = 0;
+            while (true) {
+                List<YearSummaryEntity> page = properties.staleOnly()
+                        ? yearSummaryRepository.findTop500ByYearAndSummaryVersionLessThanAndIdGreaterThanOrderByIdAsc(
+                                year, WrappedSummaryService.SUMMARY_VERSION, lastId)
+                        : yearSummaryRepository.findTop500ByYearAndIdGreaterThanOrderByIdAsc(year, lastId);
+                if (page.isEmpty()) break;
+                lastId = page.get(page.size() - 1).getId();
+
+                List<Future<?>> batch = new ArrayList<>(page.size());
+                for (YearSummaryEntity ent : page) {
+                    String puuid = ent.getPuuid();
+                    throttle.acquire();
+                    batch.add(pool.submit(() -> {
+                        try {
+                            wrappedSummaryService.recomputeFromArchive(puuid, year);
+                            done.incrementAndGet();
+                        } catch (Exception e) {
+                            log.warn("Recompute of {} / {} failed: {}", puuid, year, e.getMessage());
+                        }
+                    }));
+                }
+                for (Future<?> f : batch) {
+                    try {
+                        f.get();
+                    } catch (ExecutionException ignored) {
+                        // failures are logged per player
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        log.info("Recomputed {} {}summaries of {} in {} ms", done.get(), properties.staleOnly() ? "stale " : "", year,
+                (System.nanoTime() - started) / 1_000_000);
+        return done.get();
+    }
+}
@@ -0,0 +1,164 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.JobQueueProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded job executor plus the checks in front of it, so a launch-day spike is turned away early with a
+ * Retry-After instead of growing an unbounded queue:
+ * <ul>
+ *   <li>per-client fixed one-minute window of job requests (429); a batch is one request, its size is
+ *       capped by WrappedBatchRequest.MAX_PLAYERS,</li>
+ *   <li>a cap on requests in flight, waiting on PUUID resolution (503),</li>
+ *   <li>a bounded job queue (503).</li>
+ * </ul>
+ * Wait estimates come from the queue length and a moving average of observed job durations.
+ */
+@Component
+public class JobAdmission {
+
+    private static final long WINDOW_MILLIS = 60_000;
+    private static final double EWMA_ALPHA = 0.2;
+    private static final int CLIENT_CLEANUP_THRESHOLD = 10_000;
+
+    private final JobQueueProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore inflight;
+    private final ConcurrentHashMap<String, ClientWindow> clients = new ConcurrentHashMap<>();
+    private volatile double avgJobSeconds;
+
+    public JobAdmission(JobQueueProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(properties.workers(), properties.workers(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()));
+        this.inflight = new Semaphore(properties.maxInflightRequests());
+        this.avgJobSeconds = properties.initialJobEstimate().toSeconds();
+
+        Gauge.builder("wrapped.jobs.queued", executor, e -> e.getQueue().size()).register(registry);
+        Gauge.builder("wrapped.jobs.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+        Gauge.builder("wrapped.requests.inflight", inflight,
+                s -> properties.maxInflightRequests() - s.availablePermits()).register(registry);
+        Gauge.builder("wrapped.job.estimated_seconds", this, a -> a.avgJobSeconds).register(registry);
+    }
+
+    public interface Ticket extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Admits one request handler (a single player or a batch, either queued as one job); close the ticket
+     * when done.
+     */
+    public Ticket admit(String clientId) {
+        // service limits first: a request turned away with 503 must not use up the client's quota
+        ensureQueueCapacity();
+        if (!inflight.tryAcquire()) {
+            throw rejected(503, "Too many requests in progress", retryAfterSeconds());
+        }
+        try {
+            checkClient(clientId);
+        } catch (AdmissionRejectedException e) {
+            inflight.release();
+            throw e;
+        }
+        return inflight::release;
+    }
+
+    /**
+     * Queues a job; throws 503 if the queue filled up since {@link #admit}.
+     */
+    public void submit(Runnable job) {
+        try {
+            executor.execute(() -> {
+                long started = System.nanoTime();
+                try {
+                    job.run();
+                } finally {
+                    observe((System.nanoTime() - started) / 1e9);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw rejected(503, "Job queue is full", retryAfterSeconds());
+        }
+    }
+
+    /** Estimated start of a job queued now. */
+    public Instant estimatedStart() {
+        int ahead = executor.getQueue().size();
+        boolean allBusy = executor.getActiveCount() >= properties.workers();
+        // running jobs are half done on average
+        double seconds = allBusy ? (ahead / (double) properties.workers() + 0.5) * avgJobSeconds : 0;
+        return Instant.now().plusSeconds((long) Math.ceil(seconds));
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int activeJobs() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ---------------- internal ----------------
+
+    private void checkClient(String clientId) {
+        long now = System.currentTimeMillis();
+        if (clients.size() > CLIENT_CLEANUP_THRESHOLD) {
+            clients.values().removeIf(w -> now - w.start >= WINDOW_MILLIS);
+        }
+
+        ClientWindow w = clients.compute(clientId, (k, cur) ->
+                cur == null || now - cur.start >= WINDOW_MILLIS ? new ClientWindow(now) : cur);
+        if (w.count.incrementAndGet() > properties.perClientPerMinute()) {
+            w.count.decrementAndGet();
+            long retryAfter = Math.max(1, (w.start + WINDOW_MILLIS - now + 999) / 1000);
+            throw rejected(429, "Too many wrapped requests from this client", retryAfter);
+        }
+    }
+
+    private void ensureQueueCapacity() {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw rejected(503, "Job queue is full", retryAfterSeconds());
+        }
+    }
+
+    /** Roughly when the next queue slot frees up. */
+    private long retryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(avgJobSeconds / properties.workers()));
+    }
+
+    private AdmissionRejectedException rejected(int status, String message, long retryAfter) {
+        return new AdmissionRejectedException(status, message, retryAfter, estimatedStart(), queueDepth());
+    }
+
+    private void observe(double seconds) {
+        avgJobSeconds = avgJobSeconds + EWMA_ALPHA * (seconds - avgJobSeconds);
+    }
+
+    private static final class ClientWindow {
+        final long start;
+        final AtomicInteger count = new AtomicInteger();
+
+        ClientWindow(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.JobBudgetProperties;
+import com.tuanphong.yearreviewtft.persistence.PlayerYearEntity;
+import com.tuanphong.yearreviewtft.persistence.PlayerYearRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stops jobs whose quota is better spent elsewhere: a player is stopped when a client cancels it, when nobody
+ * polled its status for jobs.budget.abandon-after (tab closed), or when the whole job used up its time or
+ * Riot-call budget. Cancel requests and polls are kept in player_year, so they reach the job on whichever
+ * instance it runs; each instance writes a player's poll at most every quarter of abandon-after.
+ */
+@Component
+public class JobCancellation {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final JobBudgetProperties properties;
+    private final PlayerYearRepository playerYearRepository;
+    private final long pollWriteNanos;
+    private final ConcurrentHashMap<Key, Long> pollWrittenAt = new ConcurrentHashMap<>();
+
+    public JobCancellation(JobBudgetProperties properties, PlayerYearRepository playerYearRepository) {
+        this.properties = properties;
+        this.playerYearRepository = playerYearRepository;
+        this.pollWriteNanos = properties.abandonAfter().toNanos() / 4;
+    }
+
+    /**
+     * @param jobId as returned to the client that started the job (jobId of /request, batchId of /batch)
+     * @return false if the player has no running job with that id
+     */
+    public boolean cancel(String puuid, int year, String jobId) {
+        return playerYearRepository.requestCancel(puuid, year, jobId) == 1;
+    }
+
+    /** A client polled the player's status (or a batch it is part of). */
+    public void polled(String puuid, int year) {
+        long now = System.nanoTime();
+        Key key = new Key(puuid, year);
+        Long last = pollWrittenAt.get(key);
+        if (last != null && now - last < pollWriteNanos) return;
+
+        pollWrittenAt.put(key, now);
+        if (pollWrittenAt.size() > CLEANUP_THRESHOLD) {
+            pollWrittenAt.values().removeIf(t -> now - t >= pollWriteNanos);
+        }
+        playerYearRepository.touchPolled(puuid, year);
+    }
+
+    /**
+     * @param watchClients stop players nobody polls or that were cancelled; off for background refreshes
+     */
+    Watch watch(JobRun run, int year, int players, boolean watchClients) {
+        return new Watch(run, year, players, watchClients);
+    }
+
+    /** Stop decisions of one job; used by the job thread only. */
+    final class Watch {
+
+        private final JobRun run;
+        private final int year;
+        private final boolean watchClients;
+        private final long deadlineNanos;
+        private final int maxRiotCalls;
+        private final Map<String, String> stopped = new HashMap<>(); // puuid -> reason
+        private long nextCheckNanos;
+
+        private Watch(JobRun run, int year, int players, boolean watchClients) {
+            this.run = run;
+            this.year = year;
+            this.watchClients = watchClients;
+            this.deadlineNanos = System.nanoTime() + properties.maxDuration().toNanos();
+            this.maxRiotCalls = properties.maxRiotCallsPerPlayer() * Math.max(1, players);
+            this.nextCheckNanos = System.nanoTime();
+        }
+
+        /**
+         * Re-evaluates budgets (always) and client signals (every jobs.budget.check-interval).
+         *
+         * @return true when every one of {@code players} is stopped
+         */
+        boolean check(List<PlayerYearEntity> players) {
+            String budget = budgetExceeded();
+            if (budget != null) {
+                for (PlayerYearEntity py : players) stopped.putIfAbsent(py.getPuuid(), budget);
+                return true;
+            }
+
+            long now = System.nanoTime();
+            if (watchClients && now >= nextCheckNanos) {
+                nextCheckNanos = now + properties.checkInterval().toNanos();
+                List<String> running = players.stream().map(PlayerYearEntity::getPuuid)
+                        .filter(p -> !stopped.containsKey(p)).toList();
+                if (!running.isEmpty()) {
+                    Instant polledBefore = Instant.now().minus(properties.abandonAfter());
+                    for (PlayerYearRepository.JobSignal s : playerYearRepository.findJobSignals(year, running, polledBefore)) {
+                        if (s.getCancelled()) {
+                            stopped.put(s.getPuuid(), "Cancelled");
+                        } else if (s.getIdle()) {
+                            stopped.put(s.getPuuid(), "Stopped, nobody polled for "
+                                    + properties.abandonAfter().toSeconds() + "s");
+                        }
+                    }
+                }
+            }
+            return players.stream().allMatch(this::isStopped);
+        }
+
+        boolean isStopped(PlayerYearEntity py) {
+            return stopped.containsKey(py.getPuuid());
+        }
+
+        /** Why the player was stopped, null if it was not. */
+        String reason(PlayerYearEntity py) {
+            return stopped.get(py.getPuuid());
+        }
+
+        private String budgetExceeded() {
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                return "Time budget of " + properties.maxDuration().toMinutes() + " min used up";
+            }
+            if (run.riotCalls.get() >= maxRiotCalls) {
+                return "Budget of " + maxRiotCalls + " Riot calls used up";
+            }
+            return null;
+        }
+    }
+
+    private record Key(String puuid, int year) {}
+}
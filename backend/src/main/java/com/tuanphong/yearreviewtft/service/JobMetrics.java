@@ -0,0 +1,48 @@
+package com.tuanphong.yearreviewtft.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job meters (queue gauges live in {@link JobAdmission}):
+ * <ul>
+ *   <li>{@code wrapped.job.stage} timer per stage (FETCHING_MATCH_IDS, SAVING_MATCH_IDS,
+ *       FETCHING_MATCH_DETAILS, COMPUTING),</li>
+ *   <li>{@code wrapped.matches.fetched} / {@code wrapped.matches.cache_hits} counters; rate() of the first is
+ *       the Riot match throughput,</li>
+ *   <li>{@code wrapped.jobs.finished} counter per outcome (done / failed / partial / cancelled).</li>
+ * </ul>
+ */
+@Component
+public class JobMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter matchesFetched;
+    private final Counter cacheHits;
+
+    public JobMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.matchesFetched = Counter.builder("wrapped.matches.fetched").register(registry);
+        this.cacheHits = Counter.builder("wrapped.matches.cache_hits").register(registry);
+    }
+
+    public void stage(String stage, long nanos) {
+        Timer.builder("wrapped.job.stage").tag("stage", stage).register(registry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void matchFetched() {
+        matchesFetched.increment();
+    }
+
+    public void cacheHit() {
+        cacheHits.increment();
+    }
+
+    public void finished(String outcome) {
+        Counter.builder("wrapped.jobs.finished").tag("outcome", outcome).register(registry).increment();
+    }
+}
@@ -0,0 +1,56 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.riot.RiotCallListener;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of one running job (see {@link JobRunRecorder}). Riot callbacks arrive on client threads, hence
+ * atomics; the stage marks are only touched by the job thread.
+ */
+final class JobRun implements RiotCallListener {
+
+    final Long id; // null if the job_run row could not be written; then nothing is persisted
+    final int players;
+    final Instant startedAt = Instant.now();
+
+    final AtomicInteger riotCalls = new AtomicInteger();
+    final AtomicInteger retries = new AtomicInteger();
+    final AtomicInteger cacheHits = new AtomicInteger();
+    final AtomicLong bytesStored = new AtomicLong();
+
+    // values at the start of the current stage
+    Instant stageStartedAt;
+    long stageStartedNanos;
+    int stageRiotCalls;
+    int stageRetries;
+    int stageCacheHits;
+    long stageBytesStored;
+
+    JobRun(Long id, int players) {
+        this.id = id;
+        this.players = players;
+        mark();
+    }
+
+    void mark() {
+        stageStartedAt = Instant.now();
+        stageStartedNanos = System.nanoTime();
+        stageRiotCalls = riotCalls.get();
+        stageRetries = retries.get();
+        stageCacheHits = cacheHits.get();
+        stageBytesStored = bytesStored.get();
+    }
+
+    @Override
+    public void riotCall() {
+        riotCalls.incrementAndGet();
+    }
+
+    @Override
+    public void rateLimited() {
+        retries.incrementAndGet();
+    }
+}
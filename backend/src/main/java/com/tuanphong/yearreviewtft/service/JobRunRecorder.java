@@ -0,0 +1,151 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.persistence.JobRunEntity;
+import com.tuanphong.yearreviewtft.persistence.JobRunRepository;
+import com.tuanphong.yearreviewtft.persistence.JobRunStageEntity;
+import com.tuanphong.yearreviewtft.persistence.JobRunStageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the job_run timeline: one row when a job starts, one job_run_stage row per finished stage and the
+ * totals at the end, i.e. a handful of inserts per job. Counters are kept in memory in between. Stage
+ * durations also go to {@link JobMetrics}. A failed history write is logged and never fails the job.
+ */
+@Component
+public class JobRunRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(JobRunRecorder.class);
+
+    private final JobRunRepository jobRunRepository;
+    private final JobRunStageRepository jobRunStageRepository;
+    private final JobMetrics jobMetrics;
+
+    public JobRunRecorder(
+            JobRunRepository jobRunRepository,
+            JobRunStageRepository jobRunStageRepository,
+            JobMetrics jobMetrics
+    ) {
+        this.jobRunRepository = jobRunRepository;
+        this.jobRunStageRepository = jobRunStageRepository;
+        this.jobMetrics = jobMetrics;
+    }
+
+    JobRun start(int year, int players) {
+        Long id = null;
+        try {
+            JobRunEntity ent = new JobRunEntity();
+            ent.setYear(year);
+            ent.setPlayers(players);
+            ent.setStartedAt(Instant.now());
+            id = jobRunRepository.save(ent).getId();
+        } catch (DataAccessException e) {
+            log.warn("job_run not recorded: {}", e.getMessage());
+        }
+        return new JobRun(id, players);
+    }
+
+    /** Starts timing a stage (stages that directly follow another one need no call, see {@link #endStage}). */
+    void beginStage(JobRun run) {
+        run.mark();
+    }
+
+    /** Ends the current stage and starts the next one; puuid is null for stages shared by all players. */
+    void endStage(JobRun run, String stage, String puuid) {
+        long nanos = System.nanoTime() - run.stageStartedNanos;
+        jobMetrics.stage(stage, nanos);
+
+        if (run.id != null) {
+            try {
+                JobRunStageEntity ent = new JobRunStageEntity();
+                ent.setJobRunId(run.id);
+                ent.setStage(stage);
+                ent.setPuuid(puuid);
+                ent.setStartedAt(run.stageStartedAt);
+                ent.setEndedAt(Instant.now());
+                ent.setDurationMs(TimeUnit.NANOSECONDS.toMillis(nanos));
+                ent.setRiotCalls(run.riotCalls.get() - run.stageRiotCalls);
+                ent.setRetries(run.retries.get() - run.stageRetries);
+                ent.setCacheHits(run.cacheHits.get() - run.stageCacheHits);
+                ent.setBytesStored(run.bytesStored.get() - run.stageBytesStored);
+                jobRunStageRepository.save(ent);
+            } catch (DataAccessException e) {
+                log.warn("job_run_stage not recorded: {}", e.getMessage());
+            }
+        }
+        run.mark();
+    }
+
+    void cacheHit(JobRun run) {
+        run.cacheHits.incrementAndGet();
+        jobMetrics.cacheHit();
+    }
+
+    void matchStored(JobRun run, int bytes) {
+        run.bytesStored.addAndGet(bytes);
+        jobMetrics.matchFetched();
+    }
+
+    /** Outcome is done (every player got a summary), failed (none) or partial. */
+    void finish(JobRun run, int playersDone) {
+        if (run.id == null) return;
+        String outcome = playersDone == run.players ? "done" : playersDone == 0 ? "failed" : "partial";
+        try {
+            jobRunRepository.finish(run.id, Instant.now(), outcome, run.riotCalls.get(), run.retries.get(),
+                    run.cacheHits.get(), run.bytesStored.get());
+        } catch (DataAccessException e) {
+            log.warn("job_run {} not finished: {}", run.id, e.getMessage());
+        }
+    }
+
+    /**
+     * p50/p95 per stage (slowest total first) and per whole job, over the jobs of the last {@code window}.
+     */
+    public Map<String, Object> stageStats(Duration window) {
+        Instant since = Instant.now().minus(window);
+
+        List<Map<String, Object>> stages = jobRunStageRepository.stageStatsSince(since).stream()
+                .map(s -> {
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("stage", s.getStage());
+                    m.put("count", s.getCount());
+                    m.put("p50Ms", Math.round(s.getP50Ms()));
+                    m.put("p95Ms", Math.round(s.getP95Ms()));
+                    m.put("maxMs", s.getMaxMs());
+                    m.put("totalMs", s.getTotalMs());
+                    m.put("riotCalls", s.getRiotCalls());
+                    m.put("retries", s.getRetries());
+                    m.put("cacheHits", s.getCacheHits());
+                    m.put("bytesStored", s.getBytesStored());
+                    return m;
+                })
+                .toList();
+
+        JobRunRepository.JobStats j = jobRunRepository.jobStatsSince(since);
+        Map<String, Object> jobs = new LinkedHashMap<>();
+        jobs.put("count", j.getCount());
+        jobs.put("players", j.getPlayers());
+        jobs.put("p50Ms", j.getP50Ms() == null ? null : Math.round(j.getP50Ms()));
+        jobs.put("p95Ms", j.getP95Ms() == null ? null : Math.round(j.getP95Ms()));
+        jobs.put("riotCalls", j.getRiotCalls());
+        jobs.put("riotCallsPerPlayer", j.getPlayers() == 0 ? 0.0 : (double) j.getRiotCalls() / j.getPlayers());
+        jobs.put("retries", j.getRetries());
+        jobs.put("cacheHits", j.getCacheHits());
+        jobs.put("bytesStored", j.getBytesStored());
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("since", since.toString());
+        out.put("jobs", jobs);
+        out.put("stages", stages);
+        return out;
+    }
+}
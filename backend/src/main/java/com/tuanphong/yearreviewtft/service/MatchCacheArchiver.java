@@ -0,0 +1,96 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.MatchArchiveProperties;
+import com.tuanphong.yearreviewtft.persistence.MatchArchive;
+import com.tuanphong.yearreviewtft.persistence.MatchCacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Retention for match_cache: moves payloads that are older than match-cache.archive.retain-for and were
+ * already used by a saved summary into the local {@link MatchArchive}, then deletes them from Postgres.
+ * Most matches are read exactly once (when their summary is computed), so the hot table only keeps
+ * recent ones; recomputes read archived payloads through MatchCacheRepository.findPayloadJson.
+ *
+ * Each batch is appended and fsynced before its rows are deleted, so an interrupted run at worst
+ * archives a few matches twice. Deleted rows are only readable from the archive, so the archiver refuses
+ * to start unless match-cache.archive.dir is absolute; it must be a persistent volume that every instance
+ * mounts at that path (see the Dockerfile's VOLUME).
+ */
+@Service
+@ConditionalOnProperty(prefix = "match-cache.archive", name = "enabled", havingValue = "true")
+public class MatchCacheArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchCacheArchiver.class);
+
+    private final MatchCacheRepository matchCacheRepository;
+    private final MatchArchive archive;
+    private final MatchArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public MatchCacheArchiver(
+            MatchCacheRepository matchCacheRepository,
+            MatchArchive archive,
+            MatchArchiveProperties properties,
+            PlatformTransactionManager transactionManager
+    ) {
+        if (!properties.dir().isAbsolute()) {
+            throw new IllegalStateException("match-cache.archive.enabled deletes archived rows from match_cache, "
+                    + "but match-cache.archive.dir (" + properties.dir() + ") is relative; set MATCH_CACHE_ARCHIVE_DIR "
+                    + "to an absolute path on a persistent volume shared by all instances");
+        }
+        this.matchCacheRepository = matchCacheRepository;
+        this.archive = archive;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${match-cache.archive.cron:0 0 5 * * *}", zone = "Europe/Berlin")
+    public void archiveOldMatches() {
+        try {
+            long moved = archiveBefore(Instant.now().minus(properties.retainFor()));
+            log.info("match_cache archive run finished: {} payloads moved, {} in archive", moved, archive.size());
+        } catch (Exception e) {
+            log.warn("match_cache archive run stopped: {}", e.getMessage(), e);
+        }
+    }
+
+    public long archiveBefore(Instant cutoff) {
+        String after = "";
+        long moved = 0;
+        while (true) {
+            List<String> ids = matchCacheRepository.findArchivableMatchIds(cutoff, after, properties.batchSize());
+            if (ids.isEmpty()) break;
+
+            List<MatchArchive.Entry> entries = transactionTemplate.execute(tx -> {
+                List<MatchArchive.Entry> out = new ArrayList<>(ids.size());
+                for (String id : ids) {
+                    matchCacheRepository.findEncodedPayload(id)
+                            .ifPresent(p -> out.add(new MatchArchive.Entry(id, p)));
+                }
+                return out;
+            });
+            if (entries == null || entries.isEmpty()) {
+                after = ids.get(ids.size() - 1);
+                continue;
+            }
+
+            archive.append(entries);
+            List<String> archivedIds = entries.stream().map(MatchArchive.Entry::matchId).toList();
+            transactionTemplate.executeWithoutResult(tx -> matchCacheRepository.deleteAllByIdInBatch(archivedIds));
+
+            moved += archivedIds.size();
+            after = ids.get(ids.size() - 1);
+        }
+        return moved;
+    }
+}
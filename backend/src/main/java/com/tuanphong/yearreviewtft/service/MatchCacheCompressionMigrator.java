@@ -0,0 +1,85 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.MatchCacheProperties;
+import com.tuanphong.yearreviewtft.persistence.MatchCacheRepository;
+import com.tuanphong.yearreviewtft.persistence.MatchPayloadCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * One-off tool that rewrites existing jsonb rows of match_cache into the compressed form.
+ * Enabled with match-cache.migrate-existing=true; trains a dictionary from recent payloads first if none
+ * exists yet, then walks the table in keyset-paged batches (one transaction each), so it can be stopped
+ * and restarted at any time.
+ */
+@Service
+@ConditionalOnProperty(prefix = "match-cache", name = "migrate-existing", havingValue = "true")
+public class MatchCacheCompressionMigrator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchCacheCompressionMigrator.class);
+
+    private final MatchCacheRepository matchCacheRepository;
+    private final MatchPayloadCodec codec;
+    private final MatchCacheProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public MatchCacheCompressionMigrator(
+            MatchCacheRepository matchCacheRepository,
+            MatchPayloadCodec codec,
+            MatchCacheProperties properties,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.matchCacheRepository = matchCacheRepository;
+        this.codec = codec;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread.ofVirtual().name("match-cache-migrator").start(this::migrate);
+    }
+
+    public void migrate() {
+        try {
+            if (!codec.hasDictionary()) {
+                List<String> samples = matchCacheRepository.sampleRecentPayloads(properties.dictionarySamples());
+                if (!samples.isEmpty()) {
+                    var dict = codec.train(samples);
+                    log.info("Trained payload dictionary #{} ({} bytes) from {} samples",
+                            dict.getId(), dict.getDictionary().length, samples.size());
+                }
+            }
+
+            String after = "";
+            long done = 0;
+            while (true) {
+                List<String> ids = matchCacheRepository.findUncompressedMatchIds(after, properties.migrateBatchSize());
+                if (ids.isEmpty()) break;
+
+                Integer n = transactionTemplate.execute(tx -> {
+                    int c = 0;
+                    for (String id : ids) {
+                        if (matchCacheRepository.compressExisting(id)) c++;
+                    }
+                    return c;
+                });
+                done += n == null ? 0 : n;
+                after = ids.get(ids.size() - 1);
+
+                if (done % 10_000 < ids.size()) log.info("Compressed {} match_cache rows so far", done);
+            }
+            log.info("match_cache compression finished: {} rows compressed", done);
+        } catch (Exception e) {
+            log.warn("match_cache compression stopped: {}", e.getMessage(), e);
+        }
+    }
+}
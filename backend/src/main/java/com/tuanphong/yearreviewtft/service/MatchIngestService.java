@@ -0,0 +1,72 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuanphong.yearreviewtft.persistence.MatchCacheRepository;
+import com.tuanphong.yearreviewtft.persistence.PlayerMatchRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class MatchIngestService {
+
+    private final MatchCacheRepository matchCacheRepository;
+    private final PlayerMatchRepository playerMatchRepository;
+    private final ObjectMapper objectMapper;
+
+    public MatchIngestService(
+            MatchCacheRepository matchCacheRepository,
+            PlayerMatchRepository playerMatchRepository,
+            ObjectMapper objectMapper
+    ) {
+        this.matchCacheRepository = matchCacheRepository;
+        this.playerMatchRepository = playerMatchRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Caches the match payload and links it to ALL participants of the lobby (not only the requester),
+     * so lobby-mates asking for their wrapped later find most of their matches already cached.
+     * One transaction per match: cache row + up to 8 player_match upserts.
+     *
+     * @return payload bytes stored
+     */
+    @Transactional
+    public int cacheMatch(String matchId, int year, String routing, JsonNode matchJson) {
+        int bytesStored;
+        try {
+            // stored compressed or as jsonb depending on match-cache.compress
+            bytesStored = matchCacheRepository.savePayload(matchId, routing, objectMapper.writeValueAsString(matchJson));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize match JSON: " + e.getMessage(), e);
+        }
+
+        JsonNode info = matchJson.path("info");
+        JsonNode participants = info.path("participants");
+        if (!participants.isArray()) return bytesStored;
+
+        Long gameDatetime = info.hasNonNull("game_datetime") ? info.path("game_datetime").asLong() : null;
+
+        for (JsonNode p : participants) {
+            String puuid = p.path("puuid").asText(null);
+            if (puuid == null || puuid.isBlank()) continue;
+
+            playerMatchRepository.upsertParticipant(
+                    puuid,
+                    year,
+                    matchId,
+                    intOrNull(p, "placement"),
+                    intOrNull(p, "level"),
+                    intOrNull(p, "gold_left"),
+                    gameDatetime
+            );
+        }
+        return bytesStored;
+    }
+
+    private static Integer intOrNull(JsonNode node, String field) {
+        JsonNode v = node.get(field);
+        return (v == null || v.isNull()) ? null : v.asInt();
+    }
+}
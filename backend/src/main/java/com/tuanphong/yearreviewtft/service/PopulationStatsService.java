@@ -0,0 +1,358 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuanphong.yearreviewtft.persistence.PopulationBucketEntity;
+import com.tuanphong.yearreviewtft.persistence.PopulationBucketRepository;
+import com.tuanphong.yearreviewtft.persistence.YearSummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Per-year global histograms over all saved summaries, so "how do I compare?" is a lookup instead of a
+ * scan over year_summary.
+ *
+ * Saved summaries only add deltas in memory (old contribution out, new one in); a background job flushes
+ * them as atomic increments and reloads the prefix sums. A nightly rebuild from year_summary corrects any
+ * drift (e.g. deltas lost on shutdown). Rebuilds replace a year's counts under a Postgres advisory lock, so
+ * instances rebuilding at the same time don't add up.
+ *
+ * A rebuild first detaches the year's pending deltas: their summaries are committed, so the recount, which
+ * reads all pages from one repeatable-read snapshot, includes them. Deltas of saves after that are held back
+ * until the swap and then flushed on top of the recount. Only a save committing between the detach and the
+ * snapshot's first read is counted twice. Deltas queued on other instances during the rebuild are flushed
+ * onto whichever counts they meet; the next rebuild corrects that.
+ */
+@Service
+public class PopulationStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(PopulationStatsService.class);
+
+    static final String AVG_PLACEMENT = "avgPlacement"; // bucket = round(avg * 100) - 100 -> 0..700
+    static final String GAMES_PLAYED = "gamesPlayed";   // bucket = games, capped at 5000
+    static final String TOP4_RATE = "top4Rate";         // bucket = round(rate * 100) -> 0..100
+    static final String POPULATION = "population";      // single bucket "all"
+    static final String TRAITS = "traits";              // bucket = trait name (players with it in topTraits)
+
+    private static final int AVG_BUCKETS = 701;
+    private static final int GAMES_BUCKETS = 5001;
+    private static final int TOP4_BUCKETS = 101;
+    private static final int REBUILD_PAGE = 500;
+
+    private final PopulationBucketRepository bucketRepository;
+    private final YearSummaryRepository yearSummaryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate snapshotTemplate; // read-only, repeatable read: one snapshot for all pages
+
+    private final ConcurrentHashMap<BucketKey, LongAdder> pendingDeltas = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock deltaLock = new ReentrantReadWriteLock(); // write lock: deltas taken out
+    private final Set<Integer> rebuilding = ConcurrentHashMap.newKeySet(); // their deltas wait for the swap
+    private final Object flushLock = new Object(); // flushes, detaches and swaps never interleave
+    private final AtomicBoolean bootstrapped = new AtomicBoolean(false);
+    private volatile Map<Integer, YearSnapshot> snapshots = Map.of();
+
+    public PopulationStatsService(
+            PopulationBucketRepository bucketRepository,
+            YearSummaryRepository yearSummaryRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.bucketRepository = bucketRepository;
+        this.yearSummaryRepository = yearSummaryRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setReadOnly(true);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Player's standing against everyone with a summary for that year. Each value is the share (0..100) of
+     * players they rank above; ties count half.
+     */
+    public Map<String, Object> percentiles(String puuid, int year) {
+        YearSnapshot snap = snapshots.get(year);
+        Contribution me = yearSummaryRepository.findByPuuidAndYear(puuid, year)
+                .map(ent -> contribution(readTree(ent.getSummaryJson())))
+                .orElse(null);
+
+        if (me == null || snap == null || snap.population == 0) {
+            return Map.of(
+                    "ready", false,
+                    "message", "No summary or population data yet.",
+                    "puuid", puuid,
+                    "year", year
+            );
+        }
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("ready", true);
+        out.put("puuid", puuid);
+        out.put("year", year);
+        out.put("population", snap.population);
+        // lower average placement is better -> rank above everyone with a higher one
+        out.put(AVG_PLACEMENT, metric(me.avgPlacement(), 100.0 - snap.avgPlacement.percentile(me.avgBucket())));
+        out.put(GAMES_PLAYED, metric(me.gamesPlayed(), snap.gamesPlayed.percentile(me.gamesBucket())));
+        out.put(TOP4_RATE, metric(me.top4Rate(), snap.top4Rate.percentile(me.top4Bucket())));
+
+        List<Map<String, Object>> traits = new ArrayList<>();
+        for (String trait : me.traits()) {
+            long players = snap.traits.getOrDefault(trait, 0L);
+            traits.add(Map.of(
+                    "name", trait,
+                    "players", players,
+                    "popularity", round2(100.0 * players / snap.population)
+            ));
+        }
+        out.put(TRAITS, traits);
+        return out;
+    }
+
+    // after commit: a delta must never be queued for a summary a rebuild's snapshot cannot see yet
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSummarySaved(SummarySavedEvent event) {
+        if (event.previousJson() != null) {
+            apply(event.year(), contribution(readTree(event.previousJson())), -1);
+        }
+        apply(event.year(), contribution(readTree(event.summaryJson())), +1);
+    }
+
+    @Scheduled(initialDelayString = "${population.initial-delay:PT10S}",
+            fixedDelayString = "${population.refresh-interval:PT1M}")
+    public void flushAndRefresh() {
+        try {
+            if (bootstrapped.compareAndSet(false, true) && bucketRepository.count() == 0) {
+                rebuildAll();
+            }
+            flushDeltas();
+            reloadSnapshots();
+        } catch (Exception e) {
+            log.warn("Population stats refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${population.rebuild-cron:0 30 4 * * *}", zone = "Europe/Berlin")
+    public void rebuildAll() {
+        for (Integer year : yearSummaryRepository.findYears()) {
+            rebuild(year);
+        }
+        reloadSnapshots();
+    }
+
+    // ---------------- internal ----------------
+
+    void rebuild(int year) {
+        Map<BucketKey, Long> detached;
+        synchronized (flushLock) {
+            rebuilding.add(year);
+            detached = takeDeltas(y -> y == year); // already in the snapshot read below
+        }
+        try {
+            Map<BucketKey, Long> counts = snapshotTemplate.execute(tx -> recount(year));
+
+            // swap in one transaction so readers never see a half-rebuilt year; deltas held back since the
+            // detach are flushed on top of it
+            synchronized (flushLock) {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    bucketRepository.lockYear(year);
+                    bucketRepository.deleteByYear(year);
+                    counts.forEach((k, v) -> bucketRepository.setBucket(k.year(), k.metric(), k.bucket(), v));
+                });
+                rebuilding.remove(year);
+            }
+            log.info("Rebuilt population histograms for {} ({} buckets)", year, counts.size());
+        } catch (RuntimeException e) {
+            // nothing swapped in: the detached deltas still belong on the old counts
+            detached.forEach(this::apply);
+            throw e;
+        } finally {
+            rebuilding.remove(year);
+        }
+    }
+
+    private Map<BucketKey, Long> recount(int year) {
+        Map<BucketKey, Long> counts = new HashMap<>();
+        long lastId = 0;
+        while (true) {
+            List<YearSummaryRepository.SummaryRow> page =
+                    yearSummaryRepository.findSummaryPage(year, lastId, Limit.of(REBUILD_PAGE));
+            if (page.isEmpty()) return counts;
+
+            for (YearSummaryRepository.SummaryRow row : page) {
+                Contribution c = contribution(readTree(row.getSummaryJson()));
+                if (c != null) c.forEachBucket(year, key -> counts.merge(key, 1L, Long::sum));
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+    }
+
+    private void apply(int year, Contribution c, int sign) {
+        if (c == null) return;
+        c.forEachBucket(year, key -> apply(key, sign));
+    }
+
+    private void apply(BucketKey key, long delta) {
+        deltaLock.readLock().lock();
+        try {
+            pendingDeltas.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        } finally {
+            deltaLock.readLock().unlock();
+        }
+    }
+
+    /** Removes the pending deltas of the matching years; no delta is added to them meanwhile. */
+    private Map<BucketKey, Long> takeDeltas(IntPredicate years) {
+        Map<BucketKey, Long> taken = new HashMap<>();
+        deltaLock.writeLock().lock();
+        try {
+            pendingDeltas.entrySet().removeIf(e -> {
+                if (!years.test(e.getKey().year())) return false;
+                long delta = e.getValue().sum();
+                if (delta != 0) taken.put(e.getKey(), delta);
+                return true;
+            });
+        } finally {
+            deltaLock.writeLock().unlock();
+        }
+        return taken;
+    }
+
+    private void flushDeltas() {
+        synchronized (flushLock) {
+            takeDeltas(y -> !rebuilding.contains(y)).forEach((key, delta) ->
+                    bucketRepository.addToBucket(key.year(), key.metric(), key.bucket(), delta));
+        }
+    }
+
+    private void reloadSnapshots() {
+        Map<Integer, YearSnapshot> next = new HashMap<>();
+        for (Integer year : bucketRepository.findYears()) {
+            next.put(year, YearSnapshot.of(bucketRepository.findByYear(year)));
+        }
+        snapshots = Map.copyOf(next);
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return json == null ? null : objectMapper.readTree(json);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    static Contribution contribution(JsonNode summary) {
+        if (summary == null) return null;
+        int games = summary.path("gamesPlayed").asInt(0);
+        if (games <= 0) return null;
+
+        double avg = summary.path("avgPlacement").asDouble(0);
+        double top4 = summary.path("top4Rate").asDouble(0);
+
+        List<String> traits = new ArrayList<>();
+        for (JsonNode t : summary.path("topTraits")) {
+            String name = t.path("name").asText("");
+            if (!name.isBlank() && name.length() <= 96) traits.add(name);
+        }
+        return new Contribution(avg, games, top4, traits);
+    }
+
+    private static Map<String, Object> metric(Object value, double percentile) {
+        return Map.of("value", value, "percentile", round2(percentile));
+    }
+
+    private static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    private static int clamp(long v, int max) {
+        return (int) Math.max(0, Math.min(max, v));
+    }
+
+    record BucketKey(int year, String metric, String bucket) {}
+
+    record Contribution(double avgPlacement, int gamesPlayed, double top4Rate, List<String> traits) {
+        int avgBucket() { return clamp(Math.round(avgPlacement * 100) - 100, AVG_BUCKETS - 1); }
+        int gamesBucket() { return clamp(gamesPlayed, GAMES_BUCKETS - 1); }
+        int top4Bucket() { return clamp(Math.round(top4Rate * 100), TOP4_BUCKETS - 1); }
+
+        void forEachBucket(int year, Consumer<BucketKey> sink) {
+            sink.accept(new BucketKey(year, POPULATION, "all"));
+            sink.accept(new BucketKey(year, AVG_PLACEMENT, String.valueOf(avgBucket())));
+            sink.accept(new BucketKey(year, GAMES_PLAYED, String.valueOf(gamesBucket())));
+            sink.accept(new BucketKey(year, TOP4_RATE, String.valueOf(top4Bucket())));
+            for (String t : traits) sink.accept(new BucketKey(year, TRAITS, t));
+        }
+    }
+
+    /** Cumulative counts so a percentile is two array reads. */
+    record Histogram(long[] below, long[] counts, long total) {
+        static Histogram of(long[] counts) {
+            long[] below = new long[counts.length];
+            long running = 0;
+            for (int i = 0; i < counts.length; i++) {
+                below[i] = running;
+                running += counts[i];
+            }
+            return new Histogram(below, counts, running);
+        }
+
+        double percentile(int bucket) {
+            if (total == 0) return 0.0;
+            return 100.0 * (below[bucket] + counts[bucket] / 2.0) / total;
+        }
+    }
+
+    private record YearSnapshot(long population, Histogram avgPlacement, Histogram gamesPlayed,
+                                Histogram top4Rate, Map<String, Long> traits) {
+
+        static YearSnapshot of(List<PopulationBucketEntity> rows) {
+            long population = 0;
+            long[] avg = new long[AVG_BUCKETS];
+            long[] games = new long[GAMES_BUCKETS];
+            long[] top4 = new long[TOP4_BUCKETS];
+            Map<String, Long> traits = new HashMap<>();
+
+            for (PopulationBucketEntity row : rows) {
+                switch (row.getMetric()) {
+                    case POPULATION -> population = row.getCount();
+                    case AVG_PLACEMENT -> add(avg, row);
+                    case GAMES_PLAYED -> add(games, row);
+                    case TOP4_RATE -> add(top4, row);
+                    case TRAITS -> traits.put(row.getBucket(), row.getCount());
+                    default -> { }
+                }
+            }
+            return new YearSnapshot(population, Histogram.of(avg), Histogram.of(games), Histogram.of(top4), traits);
+        }
+
+        private static void add(long[] hist, PopulationBucketEntity row) {
+            try {
+                int i = Integer.parseInt(row.getBucket());
+                if (i >= 0 && i < hist.length) hist[i] += Math.max(0, row.getCount());
+            } catch (NumberFormatException ignored) {
+                // foreign bucket key, skip
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.persistence.PlayerMatchRepository;
+import com.tuanphong.yearreviewtft.persistence.PlayerMonthAggregateEntity;
+import com.tuanphong.yearreviewtft.persistence.PlayerMonthAggregateRepository;
+import com.tuanphong.yearreviewtft.persistence.YearSummaryRepository;
+import com.tuanphong.yearreviewtft.service.summary.AccumulatorCodec;
+import com.tuanphong.yearreviewtft.service.summary.Aggregators;
+import com.tuanphong.yearreviewtft.service.summary.SummaryEngine;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summaries over any range of days (Europe/Berlin): a set's dates, the last 90 days, all-time. Months the
+ * range covers completely are merged from their player_month_aggregate rows; only the games of a partially
+ * covered first or last month are decoded from their payloads. The range can only contain the years the
+ * player has requested a summary for.
+ */
+@Service
+public class RangeSummaryService {
+
+    private final PlayerMonthAggregateRepository monthAggregateRepository;
+    private final PlayerMatchRepository playerMatchRepository;
+    private final YearSummaryRepository yearSummaryRepository;
+    private final AccumulatorCodec accumulatorCodec;
+    private final SummaryEngine summaryEngine;
+    private final WrappedSummaryService wrappedSummaryService;
+    private final StaleSummaryRecomputer staleSummaryRecomputer;
+
+    public RangeSummaryService(
+            PlayerMonthAggregateRepository monthAggregateRepository,
+            PlayerMatchRepository playerMatchRepository,
+            YearSummaryRepository yearSummaryRepository,
+            AccumulatorCodec accumulatorCodec,
+            SummaryEngine summaryEngine,
+            WrappedSummaryService wrappedSummaryService,
+            StaleSummaryRecomputer staleSummaryRecomputer
+    ) {
+        this.monthAggregateRepository = monthAggregateRepository;
+        this.playerMatchRepository = playerMatchRepository;
+        this.yearSummaryRepository = yearSummaryRepository;
+        this.accumulatorCodec = accumulatorCodec;
+        this.summaryEngine = summaryEngine;
+        this.wrappedSummaryService = wrappedSummaryService;
+        this.staleSummaryRecomputer = staleSummaryRecomputer;
+    }
+
+    /**
+     * @param from first day (inclusive), null = from the first stored month
+     * @param to   last day (inclusive), null = up to the last stored month
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> summarize(String puuid, LocalDate from, LocalDate to) {
+        // years computed by an older version have no (or outdated) month rows yet: queue them, answer with the rest
+        boolean recomputing = false;
+        boolean partial = false;
+        for (YearSummaryRepository.YearVersion y : yearSummaryRepository.findYearVersions(puuid)) {
+            if (from != null && y.getYear() < from.getYear() || to != null && y.getYear() > to.getYear()) continue;
+            recomputing |= staleSummaryRecomputer.enqueueIfStale(puuid, y.getYear(), y.getSummaryVersion());
+            partial |= y.getPartial();
+        }
+
+        SummaryEngine.Run run = summaryEngine.start();
+        int months = 0;
+        for (PlayerMonthAggregateEntity row : monthAggregateRepository.findByPuuidOrderByMonthAsc(puuid)) {
+            YearMonth month = YearMonth.from(row.getMonth());
+            LocalDate first = month.atDay(1);
+            LocalDate last = month.atEndOfMonth();
+            if (from != null && last.isBefore(from) || to != null && first.isAfter(to)) continue;
+
+            if ((from == null || !from.isAfter(first)) && (to == null || !to.isBefore(last))) {
+                run.merge(accumulatorCodec.read(row.getAccumulators()));
+            } else {
+                LocalDate start = from != null && from.isAfter(first) ? from : first;
+                LocalDate end = to != null && to.isBefore(last) ? to : last;
+                run.merge(wrappedSummaryService.accumulate(puuid, playedBetween(puuid, start, end)));
+            }
+            months++;
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("ready", months > 0);
+        summary.put("puuid", puuid);
+        summary.put("from", from == null ? null : from.toString());
+        summary.put("to", to == null ? null : to.toString());
+        summary.put("months", months);
+        // true while older summaries of the range are being recomputed; their games are missing until then
+        summary.put("recomputing", recomputing);
+        // a year of the range was computed by a job stopped before all its matches were fetched
+        summary.put("partial", partial);
+        run.finish(summary);
+        return summary;
+    }
+
+    private List<String> playedBetween(String puuid, LocalDate start, LocalDate endInclusive) {
+        long fromMillis = start.atStartOfDay(Aggregators.ZONE).toInstant().toEpochMilli();
+        long toMillis = endInclusive.plusDays(1).atStartOfDay(Aggregators.ZONE).toInstant().toEpochMilli();
+        return playerMatchRepository.findMatchIdsPlayedBetween(puuid, start.getYear(), endInclusive.getYear(),
+                fromMillis, toMillis);
+    }
+}
@@ -0,0 +1,48 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.ReadReplicaProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which (puuid, year) rows this instance wrote within the replica lag window, so reads of
+ * exactly those rows can be pinned to the primary while everything else goes to the replica.
+ * <p>
+ * Per instance only: a poll that lands on another instance than the one running the job may read the replica
+ * and see an older state. With several instances and a replica, route a client to one instance (sticky
+ * sessions) for reads right after its writes.
+ */
+@Component
+public class RecentWrites {
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long windowNanos;
+    private final ConcurrentHashMap<Key, Long> writtenAt = new ConcurrentHashMap<>();
+
+    public RecentWrites(ReadReplicaProperties properties) {
+        this.windowNanos = properties.lagWindow().toNanos();
+    }
+
+    public void touch(String puuid, int year) {
+        long now = System.nanoTime();
+        writtenAt.put(new Key(puuid, year), now);
+        if (writtenAt.size() > CLEANUP_THRESHOLD) {
+            writtenAt.values().removeIf(t -> now - t > windowNanos);
+        }
+    }
+
+    public boolean isRecent(String puuid, int year) {
+        Long t = writtenAt.get(new Key(puuid, year));
+        return t != null && System.nanoTime() - t <= windowNanos;
+    }
+
+    @EventListener
+    public void onSummarySaved(SummarySavedEvent event) {
+        touch(event.puuid(), event.year());
+    }
+
+    private record Key(String puuid, int year) {}
+}
@@ -0,0 +1,30 @@
+package com.tuanphong.yearreviewtft.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces background recomputes evenly: {@link #acquire()} blocks until the next slot of a fixed rate.
+ * Idle time is not saved up, so a backlog never starts with a burst.
+ */
+final class RecomputeThrottle {
+
+    private final long intervalNanos;
+    private long nextSlot = System.nanoTime();
+
+    /** @param perSecond permits per second; 0 or less never blocks */
+    RecomputeThrottle(double perSecond) {
+        this.intervalNanos = perSecond > 0 ? (long) (1e9 / perSecond) : 0;
+    }
+
+    void acquire() throws InterruptedException {
+        if (intervalNanos == 0) return;
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (nextSlot < now) nextSlot = now;
+            wait = nextSlot - now;
+            nextSlot += intervalNanos;
+        }
+        if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+    }
+}
@@ -0,0 +1,116 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.StaleRecomputeProperties;
+import com.tuanphong.yearreviewtft.persistence.YearSummaryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Rolls out a new {@link WrappedSummaryService#SUMMARY_VERSION} without a recompute stampede: reading an older
+ * summary still serves it as is and only enqueues the player here. A single low-priority thread works the
+ * queue at summary.stale-recompute.per-second and pauses while user jobs are waiting. The stored version is
+ * re-read before each recompute, so players already brought up to date (by their own job, a bulk recompute
+ * or another instance) are skipped.
+ */
+@Component
+public class StaleSummaryRecomputer {
+
+    private static final Logger log = LoggerFactory.getLogger(StaleSummaryRecomputer.class);
+    private static final long BUSY_PAUSE_MILLIS = 1_000;
+
+    private final StaleRecomputeProperties properties;
+    private final YearSummaryRepository yearSummaryRepository;
+    private final WrappedSummaryService wrappedSummaryService;
+    private final JobAdmission jobAdmission;
+    private final RecomputeThrottle throttle;
+    private final LinkedBlockingQueue<Key> queue = new LinkedBlockingQueue<>();
+    private final Set<Key> pending = ConcurrentHashMap.newKeySet();
+    private final Counter recomputed;
+    private final Thread worker;
+
+    public StaleSummaryRecomputer(
+            StaleRecomputeProperties properties,
+            YearSummaryRepository yearSummaryRepository,
+            WrappedSummaryService wrappedSummaryService,
+            JobAdmission jobAdmission,
+            MeterRegistry registry
+    ) {
+        this.properties = properties;
+        this.yearSummaryRepository = yearSummaryRepository;
+        this.wrappedSummaryService = wrappedSummaryService;
+        this.jobAdmission = jobAdmission;
+        this.throttle = new RecomputeThrottle(properties.perSecond());
+
+        Gauge.builder("summary.stale_recompute.pending", pending, Set::size).register(registry);
+        this.recomputed = Counter.builder("summary.stale_recompute.done").register(registry);
+
+        this.worker = Thread.ofPlatform().name("summary-stale-recompute").daemon()
+                .priority(Thread.MIN_PRIORITY)
+                .unstarted(this::work);
+        if (properties.enabled()) worker.start();
+    }
+
+    /**
+     * Schedules a recompute if the summary was computed by an older version. Never blocks.
+     */
+    public void onRead(SummaryDocument doc) {
+        enqueueIfStale(doc.puuid(), doc.year(), doc.version());
+    }
+
+    /**
+     * Same for a summary known only by its stored version; true if it is stale (queued or not).
+     */
+    public boolean enqueueIfStale(String puuid, int year, int version) {
+        if (version >= WrappedSummaryService.SUMMARY_VERSION) return false;
+        if (!properties.enabled() || pending.size() >= properties.maxPending()) return true;
+
+        Key key = new Key(puuid, year);
+        if (pending.add(key)) queue.add(key);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                Key key = queue.take();
+                // users' jobs go first
+                while (jobAdmission.queueDepth() > 0) Thread.sleep(BUSY_PAUSE_MILLIS);
+                throttle.acquire();
+
+                pending.remove(key);
+                recompute(key);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void recompute(Key key) {
+        try {
+            int stored = yearSummaryRepository.findSummaryVersion(key.puuid(), key.year())
+                    .orElse(WrappedSummaryService.SUMMARY_VERSION);
+            if (stored >= WrappedSummaryService.SUMMARY_VERSION) return;
+
+            wrappedSummaryService.recomputeFromArchive(key.puuid(), key.year());
+            recomputed.increment();
+        } catch (Exception e) {
+            log.warn("Stale summary recompute of {} / {} failed: {}", key.puuid(), key.year(), e.getMessage());
+        }
+    }
+
+    private record Key(String puuid, int year) {}
+}
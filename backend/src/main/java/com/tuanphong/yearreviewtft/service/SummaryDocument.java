@@ -0,0 +1,15 @@
+package com.tuanphong.yearreviewtft.service;
+
+import java.time.Instant;
+
+/**
+ * A saved year summary exactly as stored, ready to be written to the response without parsing.
+ *
+ * @param json    UTF-8 bytes of year_summary.summary_json
+ * @param etag    strong ETag (quoted) derived from the bytes
+ * @param version aggregation version it was computed with (WrappedSummaryService.SUMMARY_VERSION)
+ * @param partial computed from only part of the player's matches (the job was stopped early)
+ */
+public record SummaryDocument(String puuid, int year, Instant computedAt, byte[] json, String etag, int version,
+                              boolean partial) {
+}
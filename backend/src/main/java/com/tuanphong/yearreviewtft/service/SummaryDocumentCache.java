@@ -0,0 +1,109 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.SummaryCacheProperties;
+import com.tuanphong.yearreviewtft.persistence.YearSummaryEntity;
+import com.tuanphong.yearreviewtft.persistence.YearSummaryRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU of summaries as pre-serialized bytes. Summaries are immutable until recomputed, so a hit
+ * needs neither the database nor Jackson. Entries are keyed by (puuid, year) and carry the computed_at
+ * they were read with: local saves replace them right away (SummarySavedEvent), and after
+ * summary.cache.revalidate-after an entry is checked against the row's computed_at so recomputes on
+ * other instances show up too.
+ */
+@Component
+public class SummaryDocumentCache {
+
+    private final YearSummaryRepository yearSummaryRepository;
+    private final long revalidateAfterNanos;
+    private final Map<Key, Entry> entries;
+
+    public SummaryDocumentCache(YearSummaryRepository yearSummaryRepository, SummaryCacheProperties properties) {
+        this.yearSummaryRepository = yearSummaryRepository;
+        this.revalidateAfterNanos = properties.revalidateAfter().toNanos();
+        int maxEntries = properties.maxEntries();
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Optional<SummaryDocument> get(String puuid, int year) {
+        Key key = new Key(puuid, year);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        long now = System.nanoTime();
+        if (entry != null && now - entry.verifiedAt < revalidateAfterNanos) {
+            return Optional.of(entry.document);
+        }
+
+        if (entry != null) {
+            // cheap check: one indexed lookup of computed_at instead of the whole document
+            Optional<Instant> computedAt = yearSummaryRepository.findComputedAt(puuid, year);
+            if (computedAt.isPresent() && computedAt.get().equals(entry.document.computedAt())) {
+                put(key, new Entry(entry.document, now));
+                return Optional.of(entry.document);
+            }
+        }
+
+        Optional<SummaryDocument> loaded = yearSummaryRepository.findByPuuidAndYear(puuid, year).map(SummaryDocumentCache::toDocument);
+        if (loaded.isPresent()) {
+            put(key, new Entry(loaded.get(), now));
+        } else {
+            evict(puuid, year);
+        }
+        return loaded;
+    }
+
+    public void evict(String puuid, int year) {
+        synchronized (entries) {
+            entries.remove(new Key(puuid, year));
+        }
+    }
+
+    @EventListener
+    public void onSummarySaved(SummarySavedEvent event) {
+        evict(event.puuid(), event.year());
+    }
+
+    private void put(Key key, Entry entry) {
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    static SummaryDocument toDocument(YearSummaryEntity ent) {
+        byte[] json = ent.getSummaryJson().getBytes(StandardCharsets.UTF_8);
+        return new SummaryDocument(ent.getPuuid(), ent.getYear(), ent.getComputedAt(), json, etag(json),
+                ent.getSummaryVersion(), ent.isPartial());
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Key(String puuid, int year) {}
+
+    private record Entry(SummaryDocument document, long verifiedAt) {}
+}
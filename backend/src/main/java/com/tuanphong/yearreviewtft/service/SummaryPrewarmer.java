@@ -0,0 +1,76 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.PrewarmProperties;
+import com.tuanphong.yearreviewtft.persistence.PlayerYearRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Spends idle Riot quota outside the season peak: during the off-peak window, and only while no job is queued
+ * or running, one small job at a time refreshes players of the current year that already have a summary
+ * (most recently active first). New match IDs since their last sync are fetched, the new matches are cached
+ * and the summary is recomputed, so a December spike mostly finds warm data.
+ * A refresh never blocks users for long: their jobs queue behind at most one refresh job.
+ */
+@Service
+@ConditionalOnProperty(prefix = "prewarm", name = "enabled", havingValue = "true")
+public class SummaryPrewarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(SummaryPrewarmer.class);
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    private final PrewarmProperties properties;
+    private final PlayerYearRepository playerYearRepository;
+    private final WrappedService wrappedService;
+    private final JobAdmission jobAdmission;
+
+    public SummaryPrewarmer(
+            PrewarmProperties properties,
+            PlayerYearRepository playerYearRepository,
+            WrappedService wrappedService,
+            JobAdmission jobAdmission
+    ) {
+        this.properties = properties;
+        this.playerYearRepository = playerYearRepository;
+        this.wrappedService = wrappedService;
+        this.jobAdmission = jobAdmission;
+    }
+
+    @Scheduled(cron = "${prewarm.cron:0 */2 * * * *}", zone = "Europe/Berlin")
+    public void refreshIfIdle() {
+        ZonedDateTime now = ZonedDateTime.now(ZONE);
+        if (!inOffPeakWindow(now.toLocalTime())) return;
+
+        // spare capacity only: users' jobs (and the previous refresh) go first
+        if (jobAdmission.queueDepth() > 0 || jobAdmission.activeJobs() > 0) return;
+
+        try {
+            int year = now.getYear();
+            List<String> puuids = playerYearRepository.findRefreshCandidates(
+                    year, Instant.now().minus(properties.staleAfter()), properties.playersPerRun());
+            if (puuids.isEmpty()) return;
+
+            int queued = wrappedService.refresh(year, puuids);
+            log.info("prewarm: refreshing {} of {} stale players of {}", queued, puuids.size(), year);
+        } catch (Exception e) {
+            log.warn("prewarm run skipped: {}", e.getMessage());
+        }
+    }
+
+    boolean inOffPeakWindow(LocalTime t) {
+        LocalTime start = properties.offPeakStart();
+        LocalTime end = properties.offPeakEnd();
+        return start.isBefore(end)
+                ? !t.isBefore(start) && t.isBefore(end)
+                : !t.isBefore(start) || t.isBefore(end); // window over midnight
+    }
+}
@@ -0,0 +1,9 @@
+package com.tuanphong.yearreviewtft.service;
+
+/**
+ * Published after a year summary was written.
+ *
+ * @param previousJson the summary it replaced, null on first compute
+ */
+public record SummarySavedEvent(String puuid, int year, String previousJson, String summaryJson) {
+}
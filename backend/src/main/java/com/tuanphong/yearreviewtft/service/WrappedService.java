@@ -2,26 +2,38 @@ package com.tuanphong.yearreviewtft.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuanphong.yearreviewtft.api.dto.WrappedBatchRequest;
+import com.tuanphong.yearreviewtft.api.dto.WrappedBatchResponse;
 import com.tuanphong.yearreviewtft.api.dto.WrappedRequest;
 import com.tuanphong.yearreviewtft.api.dto.WrappedRequestResponse;
 import com.tuanphong.yearreviewtft.api.dto.WrappedStatusResponse;
-import com.tuanphong.yearreviewtft.persistence.MatchCacheEntity;
+import com.tuanphong.yearreviewtft.config.ReadReplicaRouting;
 import com.tuanphong.yearreviewtft.persistence.MatchCacheRepository;
 import com.tuanphong.yearreviewtft.persistence.PlayerMatchEntity;
 import com.tuanphong.yearreviewtft.persistence.PlayerMatchRepository;
 import com.tuanphong.yearreviewtft.persistence.PlayerYearEntity;
 import com.tuanphong.yearreviewtft.persistence.PlayerYearRepository;
+import com.tuanphong.yearreviewtft.riot.RiotCallListener;
+import com.tuanphong.yearreviewtft.riot.RiotRegion;
 import com.tuanphong.yearreviewtft.riot.TftMatchService;
-import jakarta.persistence.EntityManager;
-import jakarta.transaction.Transactional;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 @Service
 public class WrappedService {
@@ -31,12 +43,19 @@ public class WrappedService {
     private final PlayerMatchRepository playerMatchRepository;
     private final MatchCacheRepository matchCacheRepository;
     private final ObjectMapper objectMapper;
-    private final EntityManager entityManager;
     private final WrappedSummaryService wrappedSummaryService;
     private final WrappedTxService wrappedTxService;
-
-
-    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final MatchIngestService matchIngestService;
+    private final PopulationStatsService populationStatsService;
+    private final RecentWrites recentWrites;
+    private final JobAdmission jobAdmission;
+    private final JobMetrics jobMetrics;
+    private final JobRunRecorder jobRuns;
+    private final StaleSummaryRecomputer staleSummaryRecomputer;
+    private final JobCancellation jobCancellation;
+
+    private static final int RESOLVE_CONCURRENCY = 4;
+    private static final Set<String> FINISHED_STATES = Set.of("DONE", "FAILED", "PARTIAL", "CANCELLED");
 
     public WrappedService(
             TftMatchService tftMatchService,
@@ -44,8 +63,15 @@ public class WrappedService {
             PlayerMatchRepository playerMatchRepository,
             MatchCacheRepository matchCacheRepository,
             ObjectMapper objectMapper,
-            EntityManager entityManager,
-            WrappedSummaryService wrappedSummaryService, WrappedTxService wrappedTxService
+            WrappedSummaryService wrappedSummaryService, WrappedTxService wrappedTxService,
+            MatchIngestService matchIngestService,
+            PopulationStatsService populationStatsService,
+            RecentWrites recentWrites,
+            JobAdmission jobAdmission,
+            JobMetrics jobMetrics,
+            JobRunRecorder jobRuns,
+            StaleSummaryRecomputer staleSummaryRecomputer,
+            JobCancellation jobCancellation
     ) {
         this.tftMatchService = tftMatchService;
         this.playerYearRepository = playerYearRepository;
@@ -53,103 +79,146 @@ public class WrappedService {
         this.matchCacheRepository = matchCacheRepository;
         this.objectMapper = objectMapper;
         this.wrappedSummaryService = wrappedSummaryService;
-        this.entityManager = entityManager;
         this.wrappedTxService = wrappedTxService;
+        this.matchIngestService = matchIngestService;
+        this.populationStatsService = populationStatsService;
+        this.recentWrites = recentWrites;
+        this.jobAdmission = jobAdmission;
+        this.jobMetrics = jobMetrics;
+        this.jobRuns = jobRuns;
+        this.staleSummaryRecomputer = staleSummaryRecomputer;
+        this.jobCancellation = jobCancellation;
     }
 
-    public WrappedRequestResponse start(WrappedRequest req) {
+    /**
+     * Non-blocking towards Riot: only the quick DB fast path runs on the calling thread; PUUID resolution
+     * completes on the WebClient's threads and the claim (JDBC) continues on the bounded-elastic scheduler.
+     *
+     * @param clientId who is asking (IP), for the per-client limit of {@link JobAdmission}
+     * @throws AdmissionRejectedException when the client is over its limit or the job queue is full
+     */
+    public Mono<WrappedRequestResponse> start(WrappedRequest req, String clientId) {
 
         // 0) Fast path by riotId+year (no Riot call)
         var existingByRiotId = playerYearRepository.findByRiotIdAndYear(req.riotId(), req.year());
         if (existingByRiotId.isPresent()) {
             PlayerYearEntity py = existingByRiotId.get();
 
-            if (py.isSummaryReady() || "DONE".equals(py.getState())) {
-                return new WrappedRequestResponse(py.getPuuid(), req.year(), null, "DONE");
+            // a PARTIAL summary is served, but asking again resumes fetching its missing matches
+            if (py.isSummaryReady() && !"PARTIAL".equals(py.getState()) || "DONE".equals(py.getState())) {
+                return Mono.just(new WrappedRequestResponse(py.getPuuid(), req.year(), null, "DONE"));
             }
 
             // IMPORTANT FIX:
             // If state is QUEUED, that does NOT mean a job is running.
             // We allow restart instead of returning QUEUED forever.
             if (isRunning(py.getState())) {
-                return new WrappedRequestResponse(py.getPuuid(), req.year(), null, py.getState());
+                return Mono.just(new WrappedRequestResponse(py.getPuuid(), req.year(), null, py.getState()));
             }
             // if FAILED / QUEUED -> continue to restart below
         }
 
-        // 1) Resolve puuid only when needed
-        String puuid = tftMatchService.resolvePuuid(req.riotId()).block();
-        if (puuid == null || puuid.isBlank()) throw new IllegalStateException("Could not resolve PUUID.");
+        // everything below may call Riot and start a job
+        JobAdmission.Ticket ticket = jobAdmission.admit(clientId);
 
-        // 2) If summary exists, no job needed
-        if (wrappedSummaryService.load(puuid, req.year()).isPresent()) {
-            return new WrappedRequestResponse(puuid, req.year(), null, "DONE");
-        }
+        // 1) Resolve puuid only when needed
+        return Mono.defer(() -> tftMatchService.resolvePuuid(req.riotId(), req.platform()))
+                .filter(puuid -> !puuid.isBlank())
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Could not resolve PUUID.")))
+                .publishOn(Schedulers.boundedElastic())
+                .map(puuid -> {
+                    WrappedRequestResponse claimed = claim(puuid, req, UUID.randomUUID().toString());
+
+                    // Transaction ends after claim returns; the row state prevents double-starts
+                    if (claimed.jobId() != null) submit(Map.of(req.year(), List.of(puuid)));
+
+                    return claimed;
+                })
+                .doFinally(signal -> ticket.close());
+    }
 
-        // 3) Acquire DB lock for this (puuid, year)
-        PlayerYearEntity py = wrappedTxService.lockOrCreate(puuid, req.year(), req);
+    /**
+     * Starts one job for a group of Riot IDs (a roster): PUUIDs are resolved together, the match-ID sets
+     * are unioned and every match shared by several players is fetched once (years run one after the
+     * other in the same job). Each player still gets their own player_year row, so progress is reported
+     * per player by /status (or /batch/status).
+     */
+    public Mono<WrappedBatchResponse> startBatch(WrappedBatchRequest batch, String clientId) {
+        // identical (Riot ID, year) entries are handled once
+        Map<String, WrappedRequest> byRiotId = new LinkedHashMap<>();
+        for (WrappedRequest req : batch.requests()) byRiotId.putIfAbsent(req.riotId() + "/" + req.year(), req);
+        List<WrappedRequest> requests = List.copyOf(byRiotId.values());
+
+        // PUUIDs we already know come from the DB here, before going reactive
+        List<Optional<String>> known = requests.stream()
+                .map(req -> playerYearRepository.findByRiotIdAndYear(req.riotId(), req.year()).map(PlayerYearEntity::getPuuid))
+                .toList();
+
+        JobAdmission.Ticket ticket = jobAdmission.admit(clientId);
+
+        return Flux.range(0, requests.size())
+                .flatMapSequential(i -> known.get(i).isPresent()
+                        ? Mono.just(known.get(i))
+                        : Mono.defer(() -> tftMatchService.resolvePuuid(requests.get(i).riotId(),
+                                        requests.get(i).platform()))
+                                .map(Optional::of)
+                                .onErrorResume(e -> Mono.just(Optional.empty()))
+                                .defaultIfEmpty(Optional.empty()), RESOLVE_CONCURRENCY)
+                .collectList()
+                .publishOn(Schedulers.boundedElastic())
+                .map(puuids -> claimBatch(requests, puuids))
+                .doFinally(signal -> ticket.close());
+    }
 
-        // If row doesn't exist yet, create it safely (race-proof with unique constraint)
-        if (py == null) {
-            try {
-                py = new PlayerYearEntity();
-                py.setPuuid(puuid);
-                py.setYear(req.year());
-                py.setPlatform(req.platform());
-                py.setRiotId(req.riotId());
-                py.setState("QUEUED");
-                py.setMessage("Queued");
-                py.setMatchIdsFound(0);
-                py.setMatchesCached(0);
-                py.setSummaryReady(false);
-
-                // flush so the row definitely exists inside this tx
-                py = playerYearRepository.saveAndFlush(py);
-
-                // lock again (ensures we hold the lock even after insert)
-                py = playerYearRepository.lockByPuuidAndYear(puuid, req.year())
-                        .orElseThrow(() -> new IllegalStateException("player_year missing after insert"));
-            } catch (DataIntegrityViolationException e) {
-                entityManager.clear();
-
-                // someone else inserted simultaneously -> lock & use that row
-                py = playerYearRepository.lockByPuuidAndYear(puuid, req.year())
-                        .orElseThrow(() -> new IllegalStateException("player_year missing after race"));
+    private WrappedBatchResponse claimBatch(List<WrappedRequest> requests, List<Optional<String>> puuids) {
+        String batchId = UUID.randomUUID().toString();
+        List<WrappedBatchResponse.Player> players = new ArrayList<>();
+        Map<Integer, List<String>> claimedByYear = new LinkedHashMap<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            WrappedRequest req = requests.get(i);
+            String puuid = puuids.get(i).orElse(null);
+            if (puuid == null) {
+                players.add(new WrappedBatchResponse.Player(req.riotId(), null, req.year(), "FAILED"));
+                continue;
+            }
+            if (!seen.add(puuid + "/" + req.year())) {
+                players.add(new WrappedBatchResponse.Player(req.riotId(), puuid, req.year(), "DUPLICATE"));
+                continue;
             }
-        }
 
-        // 4) After locking: decide what to do
-        if (py.isSummaryReady() || "DONE".equals(py.getState())) {
-            return new WrappedRequestResponse(puuid, req.year(), null, "DONE");
+            WrappedRequestResponse claimed = claim(puuid, req, batchId);
+            if (claimed.jobId() != null) claimedByYear.computeIfAbsent(req.year(), y -> new ArrayList<>()).add(puuid);
+            players.add(new WrappedBatchResponse.Player(req.riotId(), puuid, req.year(), claimed.state()));
         }
 
-        // IMPORTANT FIX:
-        // QUEUED should not block starting. Only block if truly running states.
-        if (isRunning(py.getState())) {
-            return new WrappedRequestResponse(puuid, req.year(), null, py.getState());
-        }
+        // one queue slot for the whole batch: a full queue rejects all of it, never just its later years
+        if (!claimedByYear.isEmpty()) submit(claimedByYear);
 
-        // 5) Start job: set running state while still holding lock
-        String jobId = UUID.randomUUID().toString();
+        return new WrappedBatchResponse(claimedByYear.isEmpty() ? null : batchId, players);
+    }
 
-        py.setPlatform(req.platform());
-        py.setRiotId(req.riotId());
-        py.setState("FETCHING_MATCH_IDS");
-        py.setMessage("Starting...");
-        py.setMatchIdsFound(0);
-        py.setMatchesCached(0);
-        py.setSummaryReady(false);
-        playerYearRepository.save(py);
+    /**
+     * Claims the player_year job (one INSERT ... ON CONFLICT statement); jobId is null when no job has to be
+     * started (summary exists or one is already running).
+     */
+    private WrappedRequestResponse claim(String puuid, WrappedRequest req, String jobId) {
+        // If a complete summary exists, no job needed
+        if (wrappedSummaryService.loadDocument(puuid, req.year()).filter(doc -> !doc.partial()).isPresent()) {
+            return new WrappedRequestResponse(puuid, req.year(), null, "DONE");
+        }
 
-        // Transaction ends after method returns; the row state prevents double-starts
-        executor.submit(() -> runJob(req, puuid));
+        WrappedTxService.Claim claim = wrappedTxService.claim(puuid, req.year(), req, jobId);
+        if (!claim.started()) return new WrappedRequestResponse(puuid, req.year(), null, claim.state());
 
-        return new WrappedRequestResponse(puuid, req.year(), jobId, py.getState());
+        recentWrites.touch(puuid, req.year());
+        return new WrappedRequestResponse(puuid, req.year(), jobId, claim.state());
     }
 
     /**
      * Running states that SHOULD block starting another job.
-     * NOTE: QUEUED is intentionally NOT considered "running" here.
+     * NOTE: QUEUED is intentionally NOT considered "running" here. Same list as PlayerYearRepository.claimJob.
      */
     private static boolean isRunning(String state) {
         if (state == null) return false;
@@ -159,8 +228,61 @@ public class WrappedService {
                 || state.equals("COMPUTING");
     }
 
+    /**
+     * Queues one job running the claimed players year by year; if the queue filled up in the meantime, all
+     * claims are released (FAILED, so a retry can start again) and the rejection is passed on.
+     */
+    private void submit(Map<Integer, List<String>> puuidsByYear) {
+        try {
+            jobAdmission.submit(() -> puuidsByYear.forEach((year, puuids) -> runJobs(year, puuids, false)));
+        } catch (AdmissionRejectedException e) {
+            puuidsByYear.forEach((year, puuids) -> {
+                for (String puuid : puuids) {
+                    playerYearRepository.findByPuuidAndYear(puuid, year)
+                            .ifPresent(py -> update(py, "FAILED", "Server busy, please try again."));
+                }
+            });
+            throw e;
+        }
+    }
+
+    /**
+     * Background refresh of finished players (see SummaryPrewarmer): match IDs played since the last sync,
+     * their details and a recomputed summary, in one job. The current summary is served meanwhile and kept
+     * if the refresh fails; players that are not DONE are skipped.
+     *
+     * @return number of players queued
+     */
+    public int refresh(int year, List<String> puuids) {
+        List<String> claimed = new ArrayList<>();
+        for (String puuid : puuids) {
+            if (playerYearRepository.changeState(puuid, year, "DONE", "FETCHING_MATCH_IDS", "Refreshing...") == 1) {
+                recentWrites.touch(puuid, year);
+                claimed.add(puuid);
+            }
+        }
+        if (claimed.isEmpty()) return 0;
+
+        try {
+            jobAdmission.submit(() -> runJobs(year, claimed, true));
+        } catch (AdmissionRejectedException e) {
+            for (String puuid : claimed) {
+                playerYearRepository.changeState(puuid, year, "FETCHING_MATCH_IDS", "DONE", "Summary ready.");
+            }
+            return 0;
+        }
+        return claimed.size();
+    }
+
+    /**
+     * Read-only: served by the replica when one is configured, except right after this instance wrote the row.
+     */
+    @Transactional(readOnly = true)
     public WrappedStatusResponse status(String puuid, int year) {
-        PlayerYearEntity py = playerYearRepository.findByPuuidAndYear(puuid, year).orElse(null);
+        PlayerYearEntity py;
+        try (var ignored = replicaUnlessRecentlyWritten(puuid, year)) {
+            py = playerYearRepository.findByPuuidAndYear(puuid, year).orElse(null);
+        }
         if (py == null) {
             return new WrappedStatusResponse(puuid, year, "NOT_FOUND", 0, 0, false,
                     "No run found. Call /api/wrapped/request.");
@@ -177,105 +299,266 @@ public class WrappedService {
     }
 
     /**
-     * Official output endpoint: returns the saved summary JSON (year_summary.summary_json).
-     * If not ready, returns a small info payload.
+     * Official output endpoint: the saved summary JSON (year_summary.summary_json) as stored bytes.
+     * Empty if not computed yet, see {@link #summaryNotReady}. A summary of an older aggregation version is
+     * still returned, its recompute is queued in the background.
      */
-    public Map<String, Object> getSummary(String puuid, int year) {
-        return wrappedSummaryService.load(puuid, year)
-                .orElse(Map.of(
-                        "ready", false,
-                        "message", "Summary not ready yet. Poll /api/wrapped/status.",
-                        "puuid", puuid,
-                        "year", year
-                ));
+    @Transactional(readOnly = true)
+    public Optional<SummaryDocument> getSummary(String puuid, int year) {
+        try (var ignored = replicaUnlessRecentlyWritten(puuid, year)) {
+            Optional<SummaryDocument> doc = wrappedSummaryService.loadDocument(puuid, year);
+            doc.ifPresent(staleSummaryRecomputer::onRead);
+            return doc;
+        }
+    }
+
+    public Map<String, Object> summaryNotReady(String puuid, int year) {
+        return Map.of(
+                "ready", false,
+                "message", "Summary not ready yet. Poll /api/wrapped/status.",
+                "puuid", puuid,
+                "year", year
+        );
+    }
+
+    /**
+     * Where the player's saved summary ranks among all players of that year (see PopulationStatsService).
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getPercentiles(String puuid, int year) {
+        try (var ignored = replicaUnlessRecentlyWritten(puuid, year)) {
+            return populationStatsService.percentiles(puuid, year);
+        }
     }
 
     // ---------------- internal ----------------
 
-    private void runJob(WrappedRequest req, String puuid) {
-        PlayerYearEntity py = playerYearRepository.findByPuuidAndYear(puuid, req.year())
-                .orElseThrow(() -> new IllegalStateException("player_year missing"));
+    private ReadReplicaRouting.Scope replicaUnlessRecentlyWritten(String puuid, int year) {
+        return recentWrites.isRecent(puuid, year) ? () -> { } : ReadReplicaRouting.useReplica();
+    }
 
+    /**
+     * Runs the jobs of one or more claimed players of the same year. Match IDs of all players are unioned,
+     * so a match shared by several of them is fetched and cached once and counted for each.
+     * Stage timings and counters are kept in the job_run history (see JobRunRecorder).
+     *
+     * @param refresh re-sync match IDs played since the last sync even if the stored list is complete
+     */
+    private void runJobs(int year, List<String> puuids, boolean refresh) {
+        JobRun run = jobRuns.start(year, puuids.size());
+        int done = 0;
         try {
-            update(py, "FETCHING_MATCH_IDS", "Fetching match IDs...");
-
-            List<String> matchIds = playerMatchRepository.findMatchIdsByPuuidAndYear(puuid, req.year());
+            done = runJobs(run, year, puuids, refresh);
+        } finally {
+            jobRuns.finish(run, done);
+        }
+    }
 
-            if (matchIds == null || matchIds.isEmpty()) {
-                matchIds = tftMatchService.fetchAllMatchIdsForYear(puuid, req.year()).block();
-                if (matchIds == null) matchIds = List.of();
+    /**
+     * Players stopped by {@link JobCancellation} (cancelled, abandoned, job budget used up) get no further
+     * matches fetched; their summary is computed from what is cached and flagged partial.
+     *
+     * @return number of players whose summary was computed
+     */
+    private int runJobs(JobRun run, int year, List<String> puuids, boolean refresh) {
+        List<PlayerYearEntity> players = new ArrayList<>();
+        for (String puuid : puuids) {
+            playerYearRepository.findByPuuidAndYear(puuid, year).ifPresent(players::add);
+        }
+        JobCancellation.Watch watch = jobCancellation.watch(run, year, players.size(), !refresh);
+
+        // 1) match IDs per player, unioned
+        Map<String, List<PlayerYearEntity>> playersByMatch = new LinkedHashMap<>();
+        List<PlayerYearEntity> active = new ArrayList<>();
+        for (PlayerYearEntity py : players) {
+            watch.check(players);
+            if (watch.isStopped(py)) {
+                // an existing summary is recomputed (and flagged) below; without one there is nothing to show
+                if (py.isSummaryReady()) active.add(py);
+                else update(py, "CANCELLED", watch.reason(py) + ".");
+                continue;
             }
-
-            py.setMatchIdsFound(matchIds.size());
-            update(py, "SAVING_MATCH_IDS", "Saving match IDs...");
-
-            // store match ids (dedup thanks to unique constraint; we also check exists to reduce noise)
-            for (String matchId : matchIds) {
-                playerMatchRepository.insertIgnoreDuplicate(puuid, req.year(), matchId);
+            try {
+                for (String matchId : syncMatchIds(py, year, run, refresh)) {
+                    playersByMatch.computeIfAbsent(matchId, k -> new ArrayList<>()).add(py);
+                }
+                active.add(py);
+            } catch (Exception e) {
+                fail(py, e);
             }
+        }
+        if (active.isEmpty()) return 0;
 
+        // 2) each unique match fetched once
+        Set<PlayerYearEntity> withGames = new HashSet<>(); // players with at least one cached match
+        jobRuns.beginStage(run);
+        try {
+            for (PlayerYearEntity py : active) {
+                if (!watch.isStopped(py)) update(py, "FETCHING_MATCH_DETAILS", "Caching match JSON...");
+            }
 
-            update(py, "FETCHING_MATCH_DETAILS", "Caching match JSON...");
+            for (Map.Entry<String, List<PlayerYearEntity>> e : playersByMatch.entrySet()) {
+                if (watch.check(active)) break;
+                List<PlayerYearEntity> waiting = e.getValue().stream().filter(py -> !watch.isStopped(py)).toList();
+                if (waiting.isEmpty()) continue; // only wanted by stopped players
 
-            int cachedNow = 0;
-            for (String matchId : matchIds) {
-                if (matchCacheRepository.existsById(matchId)) {
+                String matchId = e.getKey();
+                if (matchCacheRepository.hasPayload(matchId)) {
+                    withGames.addAll(e.getValue());
+                    jobRuns.cacheHit(run);
                     continue; // already cached
                 }
 
-                JsonNode matchJson;
-
-                while (true) {
-                    try {
-                        matchJson = tftMatchService.fetchMatchDetail(matchId).block();
-                        break; // success
-                    } catch (RuntimeException ex) {
-                        String msg = ex.getMessage() == null ? "" : ex.getMessage();
-
-                        if (msg.contains("Riot rate limited")) {
-                            long waitSeconds = extractRetryAfterSeconds(msg, 4L);
+                JsonNode matchJson = fetchMatchDetail(matchId, waiting, run);
+                if (matchJson == null) continue;
 
-                            update(py, "FETCHING_MATCH_DETAILS",
-                                    "Rate limited. Waiting " + waitSeconds + "s... Cached "
-                                            + py.getMatchesCached() + "/" + matchIds.size());
+                // caches the payload and links every participant of the lobby
+                int bytes;
+                try {
+                    bytes = matchIngestService.cacheMatch(matchId, year, RiotRegion.ofMatchId(matchId).name(), matchJson);
+                } catch (DataIntegrityViolationException cachedMeanwhile) {
+                    // another worker's job shared this lobby and stored it first
+                    withGames.addAll(e.getValue());
+                    jobRuns.cacheHit(run);
+                    continue;
+                }
+                jobRuns.matchStored(run, bytes);
+                withGames.addAll(e.getValue());
+
+                for (PlayerYearEntity py : e.getValue()) {
+                    py.setMatchesCached(py.getMatchesCached() + 1);
+                    if (py.getMatchesCached() % 10 == 0) {
+                        update(py, "FETCHING_MATCH_DETAILS",
+                                "Cached " + py.getMatchesCached() + "/" + py.getMatchIdsFound() + " matches...");
+                    }
+                }
+            }
+        } catch (Exception e) {
+            for (PlayerYearEntity py : active) fail(py, e);
+            return 0;
+        } finally {
+            jobRuns.endStage(run, "FETCHING_MATCH_DETAILS", null);
+        }
 
-                            try {
-                                Thread.sleep(waitSeconds * 1000L);
-                            } catch (InterruptedException ie) {
-                                Thread.currentThread().interrupt();
-                                throw new IllegalStateException("Job interrupted while rate-limited");
-                            }
-                            continue; // retry same match
-                        }
+        // 3) summaries
+        int done = 0;
+        for (PlayerYearEntity py : active) {
+            String stopped = watch.reason(py);
+            if (stopped != null && !py.isSummaryReady() && !withGames.contains(py)) {
+                update(py, "CANCELLED", stopped + ", no match fetched yet.");
+                continue;
+            }
+            try {
+                update(py, "COMPUTING", "Computing year summary...");
+                jobRuns.beginStage(run);
+                Map<String, Object> summary;
+                try {
+                    summary = wrappedSummaryService.computeAndSave(py.getPuuid(), year, stopped != null);
+                } finally {
+                    jobRuns.endStage(run, "COMPUTING", py.getPuuid());
+                }
 
-                        throw ex; // real error
-                    }
+                py.setSummaryReady(true);
+                if (Boolean.TRUE.equals(summary.get("partial"))) {
+                    int found = (int) summary.get("matchesFound");
+                    int missing = (int) summary.get("matchesMissing");
+                    update(py, "PARTIAL", (stopped == null ? "" : stopped + ". ")
+                            + "Partial summary of " + (found - missing) + "/" + found + " matches.");
+                } else {
+                    update(py, "DONE", "Summary ready.");
                 }
+                done++;
+            } catch (Exception e) {
+                fail(py, e);
+            }
+        }
+        return done;
+    }
 
-                if (matchJson == null) continue;
+    private List<String> syncMatchIds(PlayerYearEntity py, int year, JobRun run, boolean refresh) {
+        String puuid = py.getPuuid();
+        update(py, "FETCHING_MATCH_IDS", "Fetching match IDs...");
+        jobRuns.beginStage(run);
+
+        // Stored IDs are only trusted once this player's own list was synced from Riot:
+        // rows linked through a lobby-mate's match are a partial list.
+        Instant syncStarted = Instant.now();
+        List<String> matchIds;
+        List<String> toStore;
+        if (py.getMatchIdsSyncedAt() != null && refresh) {
+            // only games since the last sync (a day of overlap for games that ended around it)
+            Instant since = py.getMatchIdsSyncedAt().minus(Duration.ofDays(1));
+            toStore = tftMatchService.fetchMatchIdsForYear(puuid, py.getPlatform(), year, since)
+                    .contextWrite(RiotCallListener.with(run))
+                    .block();
+            if (toStore == null) toStore = List.of();
+            Set<String> all = new LinkedHashSet<>(toStore);
+            all.addAll(playerMatchRepository.findMatchIdsByPuuidAndYear(puuid, year));
+            matchIds = new ArrayList<>(all);
+        } else if (py.getMatchIdsSyncedAt() != null) {
+            matchIds = playerMatchRepository.findMatchIdsByPuuidAndYear(puuid, year);
+            toStore = matchIds;
+        } else {
+            matchIds = tftMatchService.fetchAllMatchIdsForYear(puuid, py.getPlatform(), year)
+                    .contextWrite(RiotCallListener.with(run))
+                    .block();
+            if (matchIds == null) matchIds = List.of();
+            toStore = matchIds;
+        }
 
-                MatchCacheEntity cache = new MatchCacheEntity();
-                cache.setMatchId(matchId);
-                cache.setRouting("EUROPE");
-                cache.setPayloadJson(objectMapper.writeValueAsString(matchJson));
-                matchCacheRepository.save(cache);
+        py.setMatchIdsFound(matchIds.size());
+        jobRuns.endStage(run, "FETCHING_MATCH_IDS", puuid);
+        update(py, "SAVING_MATCH_IDS", "Saving match IDs...");
+        jobRuns.beginStage(run);
 
-                cachedNow++;
-                py.setMatchesCached(py.getMatchesCached() + 1);
+        // store match ids (dedup thanks to unique constraint)
+        for (String matchId : toStore) {
+            playerMatchRepository.insertIgnoreDuplicate(puuid, year, matchId);
+        }
 
-                if (cachedNow % 10 == 0) {
+        if (py.getMatchIdsSyncedAt() == null || refresh) py.setMatchIdsSyncedAt(syncStarted);
+        jobRuns.endStage(run, "SAVING_MATCH_IDS", puuid);
+        return matchIds;
+    }
+
+    /**
+     * Fetches one match, waiting out Riot rate limits (progress message shown to every waiting player).
+     */
+    private JsonNode fetchMatchDetail(String matchId, List<PlayerYearEntity> waiting, JobRun run) {
+        while (true) {
+            try {
+                return tftMatchService.fetchMatchDetail(matchId)
+                        .contextWrite(RiotCallListener.with(run))
+                        .block();
+            } catch (RuntimeException ex) {
+                String msg = ex.getMessage() == null ? "" : ex.getMessage();
+                if (!msg.contains("Riot rate limited")) throw ex; // real error
+
+                long waitSeconds = extractRetryAfterSeconds(msg, 4L);
+                for (PlayerYearEntity py : waiting) {
                     update(py, "FETCHING_MATCH_DETAILS",
-                            "Cached " + py.getMatchesCached() + "/" + matchIds.size() + " matches...");
+                            "Rate limited. Waiting " + waitSeconds + "s... Cached "
+                                    + py.getMatchesCached() + "/" + py.getMatchIdsFound());
                 }
-            }
 
-            update(py, "COMPUTING", "Computing year summary...");
-            wrappedSummaryService.computeAndSave(puuid, req.year());
-
-            py.setSummaryReady(true);
-            update(py, "DONE", "Summary ready.");
+                try {
+                    Thread.sleep(waitSeconds * 1000L);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Job interrupted while rate-limited");
+                }
+                // retry same match
+            }
+        }
+    }
 
-        } catch (Exception e) {
+    /** A failed refresh keeps serving the summary the player already has. */
+    private void fail(PlayerYearEntity py, Exception e) {
+        if (py.isSummaryReady()) {
+            boolean partial = wrappedSummaryService.loadDocument(py.getPuuid(), py.getYear())
+                    .map(SummaryDocument::partial).orElse(false);
+            update(py, partial ? "PARTIAL" : "DONE", partial ? "Partial summary." : "Summary ready.");
+        } else {
             update(py, "FAILED", "Failed: " + e.getMessage());
         }
     }
@@ -284,6 +567,8 @@ public class WrappedService {
         py.setState(state);
         py.setMessage(msg);
         playerYearRepository.save(py);
+        recentWrites.touch(py.getPuuid(), py.getYear());
+        if (FINISHED_STATES.contains(state)) jobMetrics.finished(state.toLowerCase());
     }
 
     private static long extractRetryAfterSeconds(String message, long fallback) {
@@ -2,166 +2,211 @@ package com.tuanphong.yearreviewtft.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.tuanphong.yearreviewtft.persistence.MatchCacheEntity;
+import com.tuanphong.yearreviewtft.persistence.MatchArchive;
 import com.tuanphong.yearreviewtft.persistence.MatchCacheRepository;
+import com.tuanphong.yearreviewtft.persistence.MatchPayloadCodec;
 import com.tuanphong.yearreviewtft.persistence.PlayerMatchEntity;
 import com.tuanphong.yearreviewtft.persistence.PlayerMatchRepository;
+import com.tuanphong.yearreviewtft.persistence.PlayerMonthAggregateRepository;
 import com.tuanphong.yearreviewtft.persistence.YearSummaryEntity;
 import com.tuanphong.yearreviewtft.persistence.YearSummaryRepository;
+import com.tuanphong.yearreviewtft.service.summary.AccumulatorCodec;
+import com.tuanphong.yearreviewtft.service.summary.Aggregators;
+import com.tuanphong.yearreviewtft.service.summary.PlayerGame;
+import com.tuanphong.yearreviewtft.service.summary.SummaryEngine;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class WrappedSummaryService {
 
+    /**
+     * Version of the aggregation logic, stamped into every saved summary. Bump it whenever a change alters the
+     * summary output: older summaries are then still served, but recomputed in the background
+     * (StaleSummaryRecomputer on read, BulkSummaryRecomputer for a whole year).
+     * 2: player_month_aggregate rows are written with the summary.
+     * 3: the monthly accumulator is keyed by year and month; the streak accumulator has a fixed size.
+     */
+    public static final int SUMMARY_VERSION = 3;
+
     private final PlayerMatchRepository playerMatchRepository;
     private final MatchCacheRepository matchCacheRepository;
     private final YearSummaryRepository yearSummaryRepository;
     private final ObjectMapper objectMapper;
+    private final SummaryEngine summaryEngine;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SummaryDocumentCache summaryDocumentCache;
+    private final MatchArchive matchArchive;
+    private final MatchPayloadCodec payloadCodec;
+    private final PlayerMonthAggregateRepository monthAggregateRepository;
+    private final AccumulatorCodec accumulatorCodec;
 
     public WrappedSummaryService(
             PlayerMatchRepository playerMatchRepository,
             MatchCacheRepository matchCacheRepository,
             YearSummaryRepository yearSummaryRepository,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            SummaryEngine summaryEngine,
+            ApplicationEventPublisher eventPublisher,
+            SummaryDocumentCache summaryDocumentCache,
+            MatchArchive matchArchive,
+            MatchPayloadCodec payloadCodec,
+            PlayerMonthAggregateRepository monthAggregateRepository,
+            AccumulatorCodec accumulatorCodec
     ) {
         this.playerMatchRepository = playerMatchRepository;
         this.matchCacheRepository = matchCacheRepository;
         this.yearSummaryRepository = yearSummaryRepository;
         this.objectMapper = objectMapper;
+        this.summaryEngine = summaryEngine;
+        this.eventPublisher = eventPublisher;
+        this.summaryDocumentCache = summaryDocumentCache;
+        this.matchArchive = matchArchive;
+        this.payloadCodec = payloadCodec;
+        this.monthAggregateRepository = monthAggregateRepository;
+        this.accumulatorCodec = accumulatorCodec;
     }
 
+    /** Recompute of the stored summary; a partial one stays partial until a job completes it. */
     public Map<String, Object> computeAndSave(String puuid, int year) {
+        return computeAndSave(puuid, year, null);
+    }
+
+    /**
+     * @param partial whether the job was stopped before it fetched everything (see JobCancellation);
+     *                null keeps the flag of the stored summary
+     */
+    public Map<String, Object> computeAndSave(String puuid, int year, Boolean partial) {
         List<PlayerMatchEntity> pms = playerMatchRepository.findByPuuidAndYear(puuid, year);
         List<String> matchIds = pms.stream().map(PlayerMatchEntity::getMatchId).toList();
 
-        int gamesPlayed = 0;
-        long placementSum = 0;
-
-        int[] placementHist = new int[9]; // 1..8
-        int top4Count = 0;
-
-        Map<String, Integer> traitCounts = new HashMap<>();
-        Map<String, Integer> augmentCounts = new HashMap<>();
-        Map<String, Integer> unitCounts = new HashMap<>();
-
-        BestWorst best = null;
-        BestWorst worst = null;
-
-        for (String matchId : matchIds) {
-            Optional<MatchCacheEntity> cacheOpt = matchCacheRepository.findById(matchId);
-            if (cacheOpt.isEmpty()) continue;
-
-            JsonNode root = readJson(cacheOpt.get().getPayloadJson());
-            if (root == null) continue;
+        Computed computed = compute(puuid, year, matchIds,
+                matchId -> matchCacheRepository.findPayloadJson(matchId).map(this::readJson).orElse(null), true);
 
-            JsonNode participants = root.path("info").path("participants");
-            if (!participants.isArray()) continue;
+        upsert(puuid, year, computed, partial);
+        saveMonths(puuid, year, computed.months());
 
-            JsonNode me = findMe(participants, puuid);
-            if (me == null) continue;
+        return computed.summary();
+    }
 
-            int placement = me.path("placement").asInt(-1);
-            if (placement < 1 || placement > 8) continue;
+    /**
+     * computeAndSave for bulk recomputes: payloads come from the memory-mapped MatchArchive (inflated from
+     * the mapping and parsed from bytes, no JDBC), only matches missing there are read from match_cache.
+     */
+    public Map<String, Object> recomputeFromArchive(String puuid, int year) {
+        List<String> matchIds = playerMatchRepository.findMatchIdsByPuuidAndYear(puuid, year);
 
-            gamesPlayed++;
-            placementSum += placement;
-            placementHist[placement]++;
+        Computed computed = compute(puuid, year, matchIds, this::archivedTree, true);
 
-            if (placement <= 4) top4Count++;
+        upsert(puuid, year, computed, null);
+        saveMonths(puuid, year, computed.months());
 
-            // Track best/worst game
-            int level = me.path("level").asInt(0);
-            long goldLeft = me.path("gold_left").asLong(0);
-            BestWorst current = new BestWorst(matchId, placement, level, goldLeft);
+        return computed.summary();
+    }
 
-            best = pickBetter(best, current);
-            worst = pickWorse(worst, current);
+    /**
+     * The pure part of computeAndSave: decodes each payload once and runs all aggregators over it.
+     * Matches without a cached payload are skipped.
+     */
+    public Map<String, Object> summarize(
+            String puuid,
+            int year,
+            List<String> matchIds,
+            Function<String, Optional<String>> payloadLookup
+    ) {
+        return compute(puuid, year, matchIds,
+                matchId -> payloadLookup.apply(matchId).map(this::readJson).orElse(null), false).summary();
+    }
 
-            // Traits (count only “active” traits to avoid noise)
-            JsonNode traits = me.path("traits");
-            if (traits.isArray()) {
-                for (JsonNode t : traits) {
-                    String name = t.path("name").asText(null);
-                    if (name == null || name.isBlank()) continue;
+    /**
+     * Aggregator state over the given matches of the player (archive first, then match_cache), unfinished so
+     * it can be merged with stored month aggregates.
+     */
+    public SummaryEngine.Run accumulate(String puuid, List<String> matchIds) {
+        SummaryEngine.Run run = summaryEngine.start();
+        for (String matchId : matchIds) {
+            JsonNode root = archivedTree(matchId);
+            PlayerGame game = root == null ? null : decode(matchId, root, puuid);
+            if (game != null) run.accept(game);
+        }
+        return run;
+    }
 
-                    int tierCurrent = t.path("tier_current").asInt(0);
-                    int numUnits = t.path("num_units").asInt(0);
+    private Computed compute(
+            String puuid,
+            int year,
+            List<String> matchIds,
+            Function<String, JsonNode> treeLookup,
+            boolean keepMonths
+    ) {
+        // single pass: every aggregator sees each decoded match once, in the run of its month
+        SummaryEngine.Run undated = summaryEngine.start(); // games without timestamp count for the year only
+        Map<YearMonth, MonthRun> months = new TreeMap<>();
+        int missing = 0;
 
-                    // heuristic: trait is active if tier_current > 0 OR num_units > 0
-                    if (tierCurrent > 0 || numUnits > 0) {
-                        traitCounts.merge(name, 1, Integer::sum);
-                    }
-                }
+        for (String matchId : matchIds) {
+            JsonNode root = treeLookup.apply(matchId);
+            if (root == null) {
+                missing++;
+                continue;
             }
 
-            // Augments (field name varies by set, so try multiple)
-            // Common: augments (array of strings)
-            JsonNode augments = me.path("augments");
-            if (augments.isArray()) {
-                for (JsonNode a : augments) {
-                    if (a.isTextual()) augmentCounts.merge(a.asText(), 1, Integer::sum);
-                }
+            PlayerGame game = decode(matchId, root, puuid);
+            if (game == null) continue;
+
+            if (game.gameDatetime() <= 0) {
+                undated.accept(game);
             } else {
-                // fallback: "augments" might be nested / different; ignore if not found
+                months.computeIfAbsent(Aggregators.yearMonth(game), m -> new MonthRun(summaryEngine.start()))
+                        .accept(game);
             }
+        }
 
-            // Units
-            JsonNode units = me.path("units");
-            if (units.isArray()) {
-                for (JsonNode u : units) {
-                    String name = u.path("character_id").asText(null);
-                    if (name == null || name.isBlank()) continue;
-                    unitCounts.merge(name, 1, Integer::sum);
-                }
-            }
+        // serialized before merging: merge may hand accumulator parts over to the merged run
+        Map<YearMonth, StoredMonth> stored = new TreeMap<>();
+        if (keepMonths) {
+            months.forEach((m, r) -> stored.put(m, new StoredMonth(accumulatorCodec.write(r.run), r.games)));
         }
 
-        double avgPlacement = gamesPlayed == 0 ? 0.0 : (double) placementSum / gamesPlayed;
-        double top4Rate = gamesPlayed == 0 ? 0.0 : (double) top4Count / gamesPlayed;
+        SummaryEngine.Run run = undated;
+        for (MonthRun m : months.values()) run.merge(m.run);
 
         Map<String, Object> summary = new LinkedHashMap<>();
         summary.put("ready", true);
         summary.put("puuid", puuid);
         summary.put("year", year);
+        run.finish(summary);
 
-        summary.put("gamesPlayed", gamesPlayed);
-        summary.put("avgPlacement", round2(avgPlacement));
-        summary.put("top4Rate", round2(top4Rate));
-
-        summary.put("placements", placementsMap(placementHist));
-        summary.put("topTraits", topN(traitCounts, 10));
-        summary.put("topAugments", topN(augmentCounts, 10));
-        summary.put("topUnits", topN(unitCounts, 10));
-
-        summary.put("bestGame", best == null ? null : best.toMap());
-        summary.put("worstGame", worst == null ? null : worst.toMap());
-
-        upsert(puuid, year, summary);
-
-        return summary;
+        return new Computed(summary, stored, matchIds.size(), missing);
     }
 
-    public Optional<Map<String, Object>> load(String puuid, int year) {
-        return yearSummaryRepository.findByPuuidAndYear(puuid, year).map(ent -> {
-            try {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> map = objectMapper.readValue(ent.getSummaryJson(), Map.class);
-                return map;
-            } catch (Exception e) {
-                return Map.of("ready", false, "message", "Failed to parse saved summary JSON");
-            }
-        });
+    /**
+     * The saved summary as stored bytes (served from SummaryDocumentCache, no JSON parsing).
+     */
+    public Optional<SummaryDocument> loadDocument(String puuid, int year) {
+        return summaryDocumentCache.get(puuid, year);
     }
 
     // ---------------- helpers ----------------
 
-    private void upsert(String puuid, int year, Map<String, Object> summary) {
+    private void upsert(String puuid, int year, Computed computed, Boolean partial) {
         YearSummaryEntity ent = yearSummaryRepository.findByPuuidAndYear(puuid, year)
                 .orElseGet(YearSummaryEntity::new);
 
+        Map<String, Object> summary = computed.summary();
+        boolean isPartial = partial != null ? partial : ent.isPartial();
+        if (isPartial) {
+            summary.put("partial", true);
+            summary.put("matchesFound", computed.matchesFound());
+            summary.put("matchesMissing", computed.matchesMissing());
+        }
+
+        String previousJson = ent.getSummaryJson();
         ent.setPuuid(puuid);
         ent.setYear(year);
 
@@ -171,7 +216,30 @@ public class WrappedSummaryService {
             throw new IllegalStateException("Failed to serialize summary JSON: " + e.getMessage(), e);
         }
 
+        ent.setSummaryVersion(SUMMARY_VERSION);
+        ent.setPartial(isPartial);
+
         yearSummaryRepository.save(ent);
+        eventPublisher.publishEvent(new SummarySavedEvent(puuid, year, previousJson, ent.getSummaryJson()));
+    }
+
+    private void saveMonths(String puuid, int year, Map<YearMonth, StoredMonth> months) {
+        for (Map.Entry<YearMonth, StoredMonth> e : months.entrySet()) {
+            monthAggregateRepository.upsert(puuid, e.getKey().atDay(1), SUMMARY_VERSION,
+                    e.getValue().games(), e.getValue().accumulators());
+        }
+        if (months.isEmpty()) {
+            monthAggregateRepository.deleteByPuuidAndMonthBetween(puuid, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 1));
+        } else {
+            monthAggregateRepository.deleteMonthsOfYearExcept(puuid, year,
+                    months.keySet().stream().map(m -> m.atDay(1)).toList());
+        }
+    }
+
+    private JsonNode archivedTree(String matchId) {
+        return matchArchive.slice(matchId)
+                .map(s -> readJson(payloadCodec.decodeBytes(s.bytes(), s.dictionaryId())))
+                .orElseGet(() -> matchCacheRepository.findPayloadJson(matchId).map(this::readJson).orElse(null));
     }
 
     private JsonNode readJson(String json) {
@@ -182,59 +250,54 @@ public class WrappedSummaryService {
         }
     }
 
-    private static JsonNode findMe(JsonNode participants, String puuid) {
-        for (JsonNode p : participants) {
-            if (puuid.equals(p.path("puuid").asText())) return p;
+    private JsonNode readJson(byte[] json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            return null;
         }
-        return null;
     }
 
-    private static List<Map<String, Object>> topN(Map<String, Integer> counts, int n) {
-        return counts.entrySet().stream()
-                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
-                .limit(n)
-                .map(e -> Map.<String, Object>of("name", e.getKey(), "count", e.getValue()))
-                .collect(Collectors.toList());
-    }
+    /**
+     * Decodes one cached match into the player's game; null if unreadable or the player isn't in it.
+     */
+    private PlayerGame decode(String matchId, JsonNode root, String puuid) {
+        JsonNode info = root.path("info");
+        JsonNode participants = info.path("participants");
+        if (!participants.isArray()) return null;
 
-    private static Map<String, Integer> placementsMap(int[] hist) {
-        Map<String, Integer> m = new LinkedHashMap<>();
-        for (int i = 1; i <= 8; i++) m.put(String.valueOf(i), hist[i]);
-        return m;
-    }
+        JsonNode me = findMe(participants, puuid);
+        if (me == null) return null;
 
-    private static double round2(double v) {
-        return Math.round(v * 100.0) / 100.0;
-    }
+        int placement = me.path("placement").asInt(-1);
+        if (placement < 1 || placement > 8) return null;
 
-    // best = smaller placement; tie-break higher level; tie-break more goldLeft
-    private static BestWorst pickBetter(BestWorst best, BestWorst cur) {
-        if (best == null) return cur;
-        if (cur.placement < best.placement) return cur;
-        if (cur.placement > best.placement) return best;
-        if (cur.level > best.level) return cur;
-        if (cur.level < best.level) return best;
-        return (cur.goldLeft > best.goldLeft) ? cur : best;
+        return new PlayerGame(matchId, info, me, placement, info.path("game_datetime").asLong(0));
     }
 
-    // worst = larger placement; tie-break lower level; tie-break less goldLeft
-    private static BestWorst pickWorse(BestWorst worst, BestWorst cur) {
-        if (worst == null) return cur;
-        if (cur.placement > worst.placement) return cur;
-        if (cur.placement < worst.placement) return worst;
-        if (cur.level < worst.level) return cur;
-        if (cur.level > worst.level) return worst;
-        return (cur.goldLeft < worst.goldLeft) ? cur : worst;
+    private record Computed(Map<String, Object> summary, Map<YearMonth, StoredMonth> months,
+                            int matchesFound, int matchesMissing) {}
+
+    private record StoredMonth(String accumulators, int games) {}
+
+    private static final class MonthRun {
+        final SummaryEngine.Run run;
+        int games;
+
+        MonthRun(SummaryEngine.Run run) {
+            this.run = run;
+        }
+
+        void accept(PlayerGame game) {
+            run.accept(game);
+            games++;
+        }
     }
 
-    private record BestWorst(String matchId, int placement, int level, long goldLeft) {
-        Map<String, Object> toMap() {
-            return Map.of(
-                    "matchId", matchId,
-                    "placement", placement,
-                    "level", level,
-                    "goldLeft", goldLeft
-            );
+    private static JsonNode findMe(JsonNode participants, String puuid) {
+        for (JsonNode p : participants) {
+            if (puuid.equals(p.path("puuid").asText())) return p;
         }
+        return null;
     }
 }
@@ -3,8 +3,6 @@ package com.tuanphong.yearreviewtft.service;
 import com.tuanphong.yearreviewtft.api.dto.WrappedRequest;
 import com.tuanphong.yearreviewtft.persistence.PlayerYearEntity;
 import com.tuanphong.yearreviewtft.persistence.PlayerYearRepository;
-import jakarta.persistence.EntityManager;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,54 +10,28 @@ import org.springframework.transaction.annotation.Transactional;
 public class WrappedTxService {
 
     private final PlayerYearRepository playerYearRepository;
-    private final EntityManager entityManager;
 
-    public WrappedTxService(PlayerYearRepository playerYearRepository, EntityManager entityManager) {
+    public WrappedTxService(PlayerYearRepository playerYearRepository) {
         this.playerYearRepository = playerYearRepository;
-        this.entityManager = entityManager;
     }
 
     /**
-     * Must run inside a transaction because lockByPuuidAndYear uses SELECT ... FOR NO KEY UPDATE.
-     * This method is intentionally small and DB-only.
+     * Outcome of {@link #claim}: started = this caller owns the new job; state is what the client is told.
      */
-    @Transactional
-    public PlayerYearEntity lockOrCreate(String puuid, int year, WrappedRequest req) {
-
-        PlayerYearEntity py = playerYearRepository.lockByPuuidAndYear(puuid, year).orElse(null);
-        if (py != null) return py;
-
-        try {
-            py = new PlayerYearEntity();
-            py.setPuuid(puuid);
-            py.setYear(year);
-            py.setPlatform(req.platform());
-            py.setRiotId(req.riotId());
-            py.setState("QUEUED");
-            py.setMessage("Queued");
-            py.setMatchIdsFound(0);
-            py.setMatchesCached(0);
-            py.setSummaryReady(false);
-
-            // save+flush so the row exists immediately and gets an ID
-            return playerYearRepository.saveAndFlush(py);
-
-        } catch (DataIntegrityViolationException e) {
-            // someone else inserted concurrently -> clear persistence context and lock existing row
-            entityManager.clear();
-            return playerYearRepository.lockByPuuidAndYear(puuid, year)
-                    .orElseThrow(() -> new IllegalStateException("player_year missing after race", e));
-        }
-    }
+    public record Claim(boolean started, String state) {}
 
+    /**
+     * Creates or restarts the player_year job atomically (see PlayerYearRepository.claimJob): the decision and
+     * the state change are one statement, so at most one job runs per (puuid, year). Only a lost claim reads
+     * the row to report its state. {@code jobId} is stored with a won claim, a cancel has to present it.
+     */
     @Transactional
-    public void markStarted(String puuid, int year, String riotId, String platform, String state, String message) {
-        PlayerYearEntity py = playerYearRepository.lockByPuuidAndYear(puuid, year)
-                .orElseThrow(() -> new IllegalStateException("player_year not found"));
-        py.setRiotId(riotId);
-        py.setPlatform(platform);
-        py.setState(state);
-        py.setMessage(message);
-        playerYearRepository.save(py);
+    public Claim claim(String puuid, int year, WrappedRequest req, String jobId) {
+        var claimed = playerYearRepository.claimJob(puuid, year, req.platform(), req.riotId(), jobId);
+        if (claimed.isPresent()) return new Claim(true, claimed.get());
+
+        return playerYearRepository.findByPuuidAndYear(puuid, year)
+                .map(py -> new Claim(false, py.isSummaryReady() ? "DONE" : py.getState()))
+                .orElseThrow(() -> new IllegalStateException("player_year missing after claim"));
     }
 }
@@ -0,0 +1,62 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores a {@link SummaryEngine.Run} as JSON so partial results (one player's month) can be merged later
+ * without the match payloads. Each accumulator is written under its aggregator's class name and read back
+ * with the aggregator's accumulator type; an aggregator missing from the JSON starts empty.
+ */
+@Component
+public class AccumulatorCodec {
+
+    private final SummaryEngine engine;
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, JavaType> types = new ConcurrentHashMap<>();
+
+    public AccumulatorCodec(SummaryEngine engine, ObjectMapper objectMapper) {
+        this.engine = engine;
+        this.objectMapper = objectMapper;
+    }
+
+    public String write(SummaryEngine.Run run) {
+        ObjectNode out = objectMapper.createObjectNode();
+        for (SummaryEngine.Slot<?> slot : run.slots()) {
+            slot.compact();
+            out.set(name(slot.aggregator()), objectMapper.valueToTree(slot.acc()));
+        }
+        return out.toString();
+    }
+
+    public SummaryEngine.Run read(String json) {
+        SummaryEngine.Run run = engine.start();
+        try {
+            JsonNode in = objectMapper.readTree(json);
+            for (SummaryEngine.Slot<?> slot : run.slots()) {
+                JsonNode acc = in.get(name(slot.aggregator()));
+                if (acc != null) slot.restore(objectMapper.convertValue(acc, type(slot.aggregator())));
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable summary accumulators: " + e.getMessage(), e);
+        }
+        return run;
+    }
+
+    private static String name(SummaryAggregator<?> aggregator) {
+        return ClassUtils.getUserClass(aggregator).getSimpleName();
+    }
+
+    private JavaType type(SummaryAggregator<?> aggregator) {
+        return types.computeIfAbsent(ClassUtils.getUserClass(aggregator), c -> objectMapper.getTypeFactory()
+                .constructType(ResolvableType.forClass(c).as(SummaryAggregator.class).getGeneric(0).getType()));
+    }
+}
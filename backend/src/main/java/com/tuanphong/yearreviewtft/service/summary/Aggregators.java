@@ -0,0 +1,42 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Small helpers shared by the aggregators.
+ */
+public final class Aggregators {
+
+    // same zone as the yearly match-ID window in TftMatchService
+    public static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    private Aggregators() {}
+
+    public static List<Map<String, Object>> topN(Map<String, Integer> counts, int n) {
+        return counts.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue(), a.getValue()))
+                .limit(n)
+                .map(e -> Map.<String, Object>of("name", e.getKey(), "count", e.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    public static Map<String, Integer> mergeCounts(Map<String, Integer> left, Map<String, Integer> right) {
+        right.forEach((k, v) -> left.merge(k, v, Integer::sum));
+        return left;
+    }
+
+    public static double round2(double v) {
+        return Math.round(v * 100.0) / 100.0;
+    }
+
+    /** The game's month, or null when the game has no timestamp. */
+    public static YearMonth yearMonth(PlayerGame game) {
+        if (game.gameDatetime() <= 0) return null;
+        return YearMonth.from(Instant.ofEpochMilli(game.gameDatetime()).atZone(ZONE));
+    }
+}
@@ -0,0 +1,27 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.function.BiConsumer;
+
+@Component
+@Order(30)
+public class AugmentAggregator extends CountingAggregator {
+
+    public AugmentAggregator() {
+        super("topAugments");
+    }
+
+    @Override
+    protected void names(JsonNode me, BiConsumer<String, Integer> sink) {
+        // Augments (field name varies by set; "augments" as array of strings is the common one)
+        JsonNode augments = me.path("augments");
+        if (!augments.isArray()) return;
+
+        for (JsonNode a : augments) {
+            if (a.isTextual()) sink.accept(a.asText(), 1);
+        }
+    }
+}
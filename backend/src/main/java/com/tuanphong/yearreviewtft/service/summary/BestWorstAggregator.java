@@ -0,0 +1,78 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * bestGame / worstGame by placement, tie-broken by level and gold left.
+ */
+@Component
+@Order(50)
+public class BestWorstAggregator implements SummaryAggregator<BestWorstAggregator.Acc> {
+
+    public static class Acc {
+        public Game best;
+        public Game worst;
+    }
+
+    public record Game(String matchId, int placement, int level, long goldLeft) {
+        Map<String, Object> toMap() {
+            return Map.of(
+                    "matchId", matchId,
+                    "placement", placement,
+                    "level", level,
+                    "goldLeft", goldLeft
+            );
+        }
+    }
+
+    @Override
+    public Acc init() {
+        return new Acc();
+    }
+
+    @Override
+    public void accept(Acc acc, PlayerGame game) {
+        int level = game.me().path("level").asInt(0);
+        long goldLeft = game.me().path("gold_left").asLong(0);
+        Game current = new Game(game.matchId(), game.placement(), level, goldLeft);
+
+        acc.best = pickBetter(acc.best, current);
+        acc.worst = pickWorse(acc.worst, current);
+    }
+
+    @Override
+    public Acc merge(Acc left, Acc right) {
+        if (right.best != null) left.best = pickBetter(left.best, right.best);
+        if (right.worst != null) left.worst = pickWorse(left.worst, right.worst);
+        return left;
+    }
+
+    @Override
+    public void finish(Acc acc, Map<String, Object> summary) {
+        summary.put("bestGame", acc.best == null ? null : acc.best.toMap());
+        summary.put("worstGame", acc.worst == null ? null : acc.worst.toMap());
+    }
+
+    // best = smaller placement; tie-break higher level; tie-break more goldLeft
+    private static Game pickBetter(Game best, Game cur) {
+        if (best == null) return cur;
+        if (cur.placement < best.placement) return cur;
+        if (cur.placement > best.placement) return best;
+        if (cur.level > best.level) return cur;
+        if (cur.level < best.level) return best;
+        return (cur.goldLeft > best.goldLeft) ? cur : best;
+    }
+
+    // worst = larger placement; tie-break lower level; tie-break less goldLeft
+    private static Game pickWorse(Game worst, Game cur) {
+        if (worst == null) return cur;
+        if (cur.placement > worst.placement) return cur;
+        if (cur.placement < worst.placement) return worst;
+        if (cur.level < worst.level) return cur;
+        if (cur.level > worst.level) return worst;
+        return (cur.goldLeft < worst.goldLeft) ? cur : worst;
+    }
+}
@@ -0,0 +1,78 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "topComps": a comp is identified by the player's two biggest active traits (by units, then style),
+ * so "Bruiser + Sniper" groups boards that differ only in the flex slots.
+ */
+@Component
+@Order(80)
+public class CompAggregator implements SummaryAggregator<Map<String, long[]>> {
+
+    @Override
+    public Map<String, long[]> init() {
+        return new HashMap<>(); // comp -> {games, placementSum}
+    }
+
+    @Override
+    public void accept(Map<String, long[]> acc, PlayerGame game) {
+        String comp = compKey(game.me().path("traits"));
+        if (comp == null) return;
+        long[] stat = acc.computeIfAbsent(comp, k -> new long[2]);
+        stat[0]++;
+        stat[1] += game.placement();
+    }
+
+    @Override
+    public Map<String, long[]> merge(Map<String, long[]> left, Map<String, long[]> right) {
+        right.forEach((k, v) -> left.merge(k, v, (a, b) -> new long[]{a[0] + b[0], a[1] + b[1]}));
+        return left;
+    }
+
+    @Override
+    public void finish(Map<String, long[]> acc, Map<String, Object> summary) {
+        List<Map<String, Object>> top = acc.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                .limit(10)
+                .map(e -> {
+                    Map<String, Object> m = new LinkedHashMap<>();
+                    m.put("name", e.getKey());
+                    m.put("traits", List.of(e.getKey().split(" \\+ ")));
+                    m.put("count", e.getValue()[0]);
+                    m.put("avgPlacement", Aggregators.round2((double) e.getValue()[1] / e.getValue()[0]));
+                    return m;
+                })
+                .toList();
+        summary.put("topComps", top);
+    }
+
+    private static String compKey(JsonNode traits) {
+        if (!traits.isArray()) return null;
+
+        List<JsonNode> active = new ArrayList<>();
+        for (JsonNode t : traits) {
+            if (t.path("tier_current").asInt(0) > 0 && !t.path("name").asText("").isBlank()) active.add(t);
+        }
+        if (active.isEmpty()) return null;
+
+        active.sort((a, b) -> {
+            int byUnits = Integer.compare(b.path("num_units").asInt(0), a.path("num_units").asInt(0));
+            if (byUnits != 0) return byUnits;
+            return Integer.compare(b.path("style").asInt(0), a.path("style").asInt(0));
+        });
+
+        List<String> names = new ArrayList<>(2);
+        for (int i = 0; i < Math.min(2, active.size()); i++) names.add(active.get(i).path("name").asText());
+        names.sort(null); // order-independent key
+        return String.join(" + ", names);
+    }
+}
@@ -0,0 +1,42 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Base for the "top 10 X" metrics: counts names per game and emits the most frequent ones.
+ */
+abstract class CountingAggregator implements SummaryAggregator<Map<String, Integer>> {
+
+    private final String key;
+
+    protected CountingAggregator(String key) {
+        this.key = key;
+    }
+
+    /** Reports every name to count for this game. */
+    protected abstract void names(JsonNode me, BiConsumer<String, Integer> sink);
+
+    @Override
+    public Map<String, Integer> init() {
+        return new HashMap<>();
+    }
+
+    @Override
+    public void accept(Map<String, Integer> acc, PlayerGame game) {
+        names(game.me(), (name, n) -> acc.merge(name, n, Integer::sum));
+    }
+
+    @Override
+    public Map<String, Integer> merge(Map<String, Integer> left, Map<String, Integer> right) {
+        return Aggregators.mergeCounts(left, right);
+    }
+
+    @Override
+    public void finish(Map<String, Integer> acc, Map<String, Object> summary) {
+        summary.put(key, Aggregators.topN(acc, 10));
+    }
+}
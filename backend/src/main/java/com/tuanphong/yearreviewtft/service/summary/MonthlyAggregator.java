@@ -0,0 +1,73 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * "monthly": games played and average placement per calendar month (Europe/Berlin).
+ * When all games fall in one year (a year summary) the series has 12 points with month 1..12; a range over
+ * several years gets one point per month with games, e.g. month "2025-01". Games without a timestamp are left
+ * out of the series.
+ */
+@Component
+@Order(60)
+public class MonthlyAggregator implements SummaryAggregator<MonthlyAggregator.Acc> {
+
+    public static class Acc {
+        public TreeMap<YearMonth, long[]> months = new TreeMap<>(); // {games, placementSum}
+    }
+
+    @Override
+    public Acc init() {
+        return new Acc();
+    }
+
+    @Override
+    public void accept(Acc acc, PlayerGame game) {
+        YearMonth month = Aggregators.yearMonth(game);
+        if (month == null) return;
+        long[] m = acc.months.computeIfAbsent(month, k -> new long[2]);
+        m[0]++;
+        m[1] += game.placement();
+    }
+
+    @Override
+    public Acc merge(Acc left, Acc right) {
+        right.months.forEach((month, r) -> left.months.merge(month, r, (l, x) -> {
+            l[0] += x[0];
+            l[1] += x[1];
+            return l;
+        }));
+        return left;
+    }
+
+    @Override
+    public void finish(Acc acc, Map<String, Object> summary) {
+        List<Map<String, Object>> series = new ArrayList<>(12);
+        if (acc.months.isEmpty() || acc.months.firstKey().getYear() == acc.months.lastKey().getYear()) {
+            int year = acc.months.isEmpty() ? 0 : acc.months.firstKey().getYear();
+            for (int m = 1; m <= 12; m++) {
+                series.add(point(m, acc.months.isEmpty() ? null : acc.months.get(YearMonth.of(year, m))));
+            }
+        } else {
+            acc.months.forEach((month, m) -> series.add(point(month.toString(), m)));
+        }
+        summary.put("monthly", series);
+    }
+
+    private static Map<String, Object> point(Object month, long[] m) {
+        long games = m == null ? 0 : m[0];
+        Map<String, Object> point = new LinkedHashMap<>();
+        point.put("month", month);
+        point.put("games", (int) games);
+        point.put("avgPlacement", games == 0 ? 0.0 : Aggregators.round2((double) m[1] / games));
+        return point;
+    }
+}
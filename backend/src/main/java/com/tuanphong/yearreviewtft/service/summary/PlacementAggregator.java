@@ -0,0 +1,58 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * gamesPlayed, avgPlacement, top4Rate and the 1st..8th placement distribution.
+ */
+@Component
+@Order(10)
+public class PlacementAggregator implements SummaryAggregator<PlacementAggregator.Acc> {
+
+    public static class Acc {
+        public int games;
+        public long placementSum;
+        public int top4;
+        public int[] hist = new int[9]; // 1..8
+    }
+
+    @Override
+    public Acc init() {
+        return new Acc();
+    }
+
+    @Override
+    public void accept(Acc acc, PlayerGame game) {
+        acc.games++;
+        acc.placementSum += game.placement();
+        acc.hist[game.placement()]++;
+        if (game.placement() <= 4) acc.top4++;
+    }
+
+    @Override
+    public Acc merge(Acc left, Acc right) {
+        left.games += right.games;
+        left.placementSum += right.placementSum;
+        left.top4 += right.top4;
+        for (int i = 1; i <= 8; i++) left.hist[i] += right.hist[i];
+        return left;
+    }
+
+    @Override
+    public void finish(Acc acc, Map<String, Object> summary) {
+        double avgPlacement = acc.games == 0 ? 0.0 : (double) acc.placementSum / acc.games;
+        double top4Rate = acc.games == 0 ? 0.0 : (double) acc.top4 / acc.games;
+
+        summary.put("gamesPlayed", acc.games);
+        summary.put("avgPlacement", Aggregators.round2(avgPlacement));
+        summary.put("top4Rate", Aggregators.round2(top4Rate));
+
+        Map<String, Integer> placements = new LinkedHashMap<>();
+        for (int i = 1; i <= 8; i++) placements.put(String.valueOf(i), acc.hist[i]);
+        summary.put("placements", placements);
+    }
+}
@@ -0,0 +1,13 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * One decoded game from the requesting player's point of view.
+ *
+ * @param me           the player's entry of info.participants
+ * @param placement    1..8 (games outside that range are dropped before aggregation)
+ * @param gameDatetime epoch millis from info.game_datetime, 0 if missing
+ */
+public record PlayerGame(String matchId, JsonNode info, JsonNode me, int placement, long gameDatetime) {
+}
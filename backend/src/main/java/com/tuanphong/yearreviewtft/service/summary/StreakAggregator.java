@@ -0,0 +1,117 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "streaks": longest run of consecutive wins and of consecutive top 4s.
+ * A run of games is stored by its first and last game time and, per streak kind, the run at its start, at its
+ * end and the best one inside, so months join in time order: left's trailing run continues into right's
+ * leading one. Match IDs arrive in no particular order, so accepted games wait in {@code pending} and are
+ * sorted into the state when it is merged, stored or finished. Merged accumulators must not overlap in time.
+ */
+@Component
+@Order(70)
+public class StreakAggregator implements SummaryAggregator<StreakAggregator.Acc> {
+
+    public static class Acc {
+        public long first; // game time of the earliest game, 0 while empty
+        public long last;
+        public Streak win = new Streak();
+        public Streak top4 = new Streak();
+        List<long[]> pending = new ArrayList<>(); // {gameDatetime, placement}; not stored, see compact
+    }
+
+    public static class Streak {
+        public int leading;        // counting games from the first one on
+        public int trailing;       // counting games up to the last one
+        public int best;
+        public boolean all = true; // every game counts
+
+        static Streak of(boolean counts) {
+            Streak s = new Streak();
+            s.leading = s.trailing = s.best = counts ? 1 : 0;
+            s.all = counts;
+            return s;
+        }
+
+        /** {@code this} followed by {@code next}. */
+        Streak then(Streak next) {
+            Streak s = new Streak();
+            s.leading = all ? leading + next.leading : leading;
+            s.trailing = next.all ? trailing + next.trailing : next.trailing;
+            s.best = Math.max(Math.max(best, next.best), trailing + next.leading);
+            s.all = all && next.all;
+            return s;
+        }
+    }
+
+    @Override
+    public Acc init() {
+        return new Acc();
+    }
+
+    @Override
+    public void accept(Acc acc, PlayerGame game) {
+        if (game.gameDatetime() <= 0) return;
+        acc.pending.add(new long[]{game.gameDatetime(), game.placement()});
+    }
+
+    @Override
+    public Acc merge(Acc left, Acc right) {
+        compact(left);
+        compact(right);
+        if (right.first == 0) return left;
+        if (left.first == 0) return right;
+        return left.first <= right.first ? join(left, right) : join(right, left);
+    }
+
+    @Override
+    public Acc compact(Acc acc) {
+        if (acc.pending.isEmpty()) return acc;
+        acc.pending.sort(Comparator.comparingLong(g -> g[0]));
+        Acc run = new Acc();
+        for (long[] g : acc.pending) {
+            Acc game = new Acc();
+            game.first = game.last = g[0];
+            game.win = Streak.of(g[1] == 1);
+            game.top4 = Streak.of(g[1] <= 4);
+            run = run.first == 0 ? game : join(run, game);
+        }
+        acc.pending.clear();
+        if (acc.first == 0) return copy(run, acc);
+        return copy(acc.first <= run.first ? join(acc, run) : join(run, acc), acc);
+    }
+
+    @Override
+    public void finish(Acc acc, Map<String, Object> summary) {
+        compact(acc);
+        Map<String, Object> streaks = new LinkedHashMap<>();
+        streaks.put("longestWinStreak", acc.win.best);
+        streaks.put("longestTop4Streak", acc.top4.best);
+        summary.put("streaks", streaks);
+    }
+
+    private static Acc join(Acc earlier, Acc later) {
+        Acc out = new Acc();
+        out.first = earlier.first;
+        out.last = later.last;
+        out.win = earlier.win.then(later.win);
+        out.top4 = earlier.top4.then(later.top4);
+        return out;
+    }
+
+    private static Acc copy(Acc from, Acc to) {
+        to.first = from.first;
+        to.last = from.last;
+        to.win = from.win;
+        to.top4 = from.top4;
+        return to;
+    }
+}
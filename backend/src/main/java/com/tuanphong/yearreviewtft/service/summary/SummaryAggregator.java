@@ -0,0 +1,29 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import java.util.Map;
+
+/**
+ * One metric of the year summary. Every aggregator registered as a Spring bean is fed each decoded match
+ * exactly once (see {@link SummaryEngine}); adding a metric means adding a bean, not another pass.
+ *
+ * @param <A> mutable accumulator; must be mergeable so partial results (e.g. per month) can be combined
+ */
+public interface SummaryAggregator<A> {
+
+    /** Fresh, empty accumulator. */
+    A init();
+
+    /** Folds one game of the player into the accumulator. */
+    void accept(A acc, PlayerGame game);
+
+    /** Combines two partial accumulators; may reuse (and return) {@code left}. */
+    A merge(A left, A right);
+
+    /** Brings the accumulator into the form {@link AccumulatorCodec} stores; may reuse (and return) it. */
+    default A compact(A acc) {
+        return acc;
+    }
+
+    /** Writes this aggregator's keys into the summary map. */
+    void finish(A acc, Map<String, Object> summary);
+}
@@ -0,0 +1,97 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs all {@link SummaryAggregator} beans (in {@code @Order}) in a single pass over the games.
+ */
+@Component
+public class SummaryEngine {
+
+    private final List<SummaryAggregator<?>> aggregators;
+
+    public SummaryEngine(List<SummaryAggregator<?>> aggregators) {
+        this.aggregators = List.copyOf(aggregators);
+    }
+
+    public Run start() {
+        List<Slot<?>> slots = new ArrayList<>(aggregators.size());
+        for (SummaryAggregator<?> a : aggregators) slots.add(Slot.of(a));
+        return new Run(slots);
+    }
+
+    public static final class Run {
+        private final List<Slot<?>> slots;
+
+        private Run(List<Slot<?>> slots) {
+            this.slots = slots;
+        }
+
+        public void accept(PlayerGame game) {
+            for (Slot<?> s : slots) s.accept(game);
+        }
+
+        /** Merges another run of the same engine into this one. */
+        public Run merge(Run other) {
+            for (int i = 0; i < slots.size(); i++) slots.get(i).mergeFrom(other.slots.get(i));
+            return this;
+        }
+
+        public void finish(Map<String, Object> summary) {
+            for (Slot<?> s : slots) s.finish(summary);
+        }
+
+        // for AccumulatorCodec
+        List<Slot<?>> slots() {
+            return slots;
+        }
+    }
+
+    static final class Slot<A> {
+        private final SummaryAggregator<A> aggregator;
+        private A acc;
+
+        private Slot(SummaryAggregator<A> aggregator, A acc) {
+            this.aggregator = aggregator;
+            this.acc = acc;
+        }
+
+        static <A> Slot<A> of(SummaryAggregator<A> aggregator) {
+            return new Slot<>(aggregator, aggregator.init());
+        }
+
+        void accept(PlayerGame game) {
+            aggregator.accept(acc, game);
+        }
+
+        @SuppressWarnings("unchecked")
+        void mergeFrom(Slot<?> other) {
+            acc = aggregator.merge(acc, (A) other.acc);
+        }
+
+        void finish(Map<String, Object> summary) {
+            aggregator.finish(acc, summary);
+        }
+
+        void compact() {
+            acc = aggregator.compact(acc);
+        }
+
+        SummaryAggregator<A> aggregator() {
+            return aggregator;
+        }
+
+        A acc() {
+            return acc;
+        }
+
+        @SuppressWarnings("unchecked")
+        void restore(Object acc) {
+            this.acc = (A) acc;
+        }
+    }
+}
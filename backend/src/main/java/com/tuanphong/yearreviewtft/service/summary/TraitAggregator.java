@@ -0,0 +1,36 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.function.BiConsumer;
+
+@Component
+@Order(20)
+public class TraitAggregator extends CountingAggregator {
+
+    public TraitAggregator() {
+        super("topTraits");
+    }
+
+    @Override
+    protected void names(JsonNode me, BiConsumer<String, Integer> sink) {
+        // Traits (count only “active” traits to avoid noise)
+        JsonNode traits = me.path("traits");
+        if (!traits.isArray()) return;
+
+        for (JsonNode t : traits) {
+            String name = t.path("name").asText(null);
+            if (name == null || name.isBlank()) continue;
+
+            int tierCurrent = t.path("tier_current").asInt(0);
+            int numUnits = t.path("num_units").asInt(0);
+
+            // heuristic: trait is active if tier_current > 0 OR num_units > 0
+            if (tierCurrent > 0 || numUnits > 0) {
+                sink.accept(name, 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.function.BiConsumer;
+
+@Component
+@Order(40)
+public class UnitAggregator extends CountingAggregator {
+
+    public UnitAggregator() {
+        super("topUnits");
+    }
+
+    @Override
+    protected void names(JsonNode me, BiConsumer<String, Integer> sink) {
+        JsonNode units = me.path("units");
+        if (!units.isArray()) return;
+
+        for (JsonNode u : units) {
+            String name = u.path("character_id").asText(null);
+            if (name == null || name.isBlank()) continue;
+            sink.accept(name, 1);
+        }
+    }
+}
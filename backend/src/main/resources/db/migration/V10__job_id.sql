@@ -0,0 +1,3 @@
+-- Id of the running job as returned to the client that started it (/request jobId, /batch batchId); a cancel
+-- must present it. Not mapped in PlayerYearEntity, like the other job signals of V9.
+ALTER TABLE player_year ADD COLUMN job_id varchar(36);
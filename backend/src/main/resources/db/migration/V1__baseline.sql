@@ -0,0 +1,48 @@
+-- Schema as previously created by Hibernate ddl-auto=update.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate), so this only
+-- runs on empty databases.
+
+CREATE TABLE match_cache (
+    match_id     varchar(64)                 NOT NULL,
+    routing      varchar(16)                 NOT NULL,
+    fetched_at   timestamp(6) with time zone NOT NULL,
+    payload_json jsonb                       NOT NULL,
+    CONSTRAINT match_cache_pkey PRIMARY KEY (match_id)
+);
+
+CREATE TABLE player_match (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY,
+    created_at timestamp(6) with time zone NOT NULL,
+    match_id   varchar(64)                 NOT NULL,
+    puuid      varchar(128)                NOT NULL,
+    year       integer                     NOT NULL,
+    CONSTRAINT player_match_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_player_match UNIQUE (puuid, year, match_id)
+);
+
+CREATE TABLE player_year (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY,
+    created_at      timestamp(6) with time zone NOT NULL,
+    match_ids_found integer                     NOT NULL,
+    matches_cached  integer                     NOT NULL,
+    message         varchar(512)                NOT NULL,
+    platform        varchar(16)                 NOT NULL,
+    puuid           varchar(128)                NOT NULL,
+    riot_id         varchar(64)                 NOT NULL,
+    state           varchar(32)                 NOT NULL,
+    summary_ready   boolean                     NOT NULL,
+    updated_at      timestamp(6) with time zone NOT NULL,
+    year            integer                     NOT NULL,
+    CONSTRAINT player_year_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_player_year UNIQUE (puuid, year)
+);
+
+CREATE TABLE year_summary (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    computed_at  timestamp(6) with time zone NOT NULL,
+    puuid        varchar(128)                NOT NULL,
+    summary_json text                        NOT NULL,
+    year         integer                     NOT NULL,
+    CONSTRAINT year_summary_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_year_summary UNIQUE (puuid, year)
+);
@@ -0,0 +1,34 @@
+-- Columns and tables added while the schema was still managed by ddl-auto=update.
+-- Written idempotently: databases that already ran those versions have some of them.
+
+-- lobby-wide ingestion: per-participant stats on player_match, own-ID-list sync marker
+ALTER TABLE player_match ADD COLUMN IF NOT EXISTS placement integer;
+ALTER TABLE player_match ADD COLUMN IF NOT EXISTS level integer;
+ALTER TABLE player_match ADD COLUMN IF NOT EXISTS gold_left integer;
+ALTER TABLE player_match ADD COLUMN IF NOT EXISTS game_datetime bigint;
+
+ALTER TABLE player_year ADD COLUMN IF NOT EXISTS match_ids_synced_at timestamp(6) with time zone;
+
+-- population percentiles
+CREATE TABLE IF NOT EXISTS population_bucket (
+    id     bigint GENERATED BY DEFAULT AS IDENTITY,
+    year   integer     NOT NULL,
+    metric varchar(32) NOT NULL,
+    bucket varchar(96) NOT NULL,
+    count  bigint      NOT NULL,
+    CONSTRAINT population_bucket_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_population_bucket UNIQUE (year, metric, bucket)
+);
+
+-- compressed match payloads
+CREATE TABLE IF NOT EXISTS payload_dictionary (
+    id           integer GENERATED BY DEFAULT AS IDENTITY,
+    dictionary   bytea                       NOT NULL,
+    sample_count integer                     NOT NULL,
+    created_at   timestamp(6) with time zone NOT NULL,
+    CONSTRAINT payload_dictionary_pkey PRIMARY KEY (id)
+);
+
+ALTER TABLE match_cache ADD COLUMN IF NOT EXISTS payload_compressed bytea;
+ALTER TABLE match_cache ADD COLUMN IF NOT EXISTS payload_dict_id integer;
+ALTER TABLE match_cache ALTER COLUMN payload_json DROP NOT NULL;
@@ -0,0 +1,17 @@
+-- Indexes derived from the repository queries. Lookups already served by a unique constraint:
+--   player_year  (puuid, year)            findByPuuidAndYear, lockByPuuidAndYear
+--   player_match (puuid, year, match_id)  findByPuuidAndYear, findMatchIdsByPuuidAndYear (index-only)
+--   year_summary (puuid, year)            findByPuuidAndYear
+--   population_bucket (year, ...)         findByYear
+
+-- PlayerYearRepository.findByRiotIdAndYear: fast path of every /api/wrapped/request
+CREATE INDEX IF NOT EXISTS ix_player_year_riot_id_year ON player_year (riot_id, year);
+
+-- YearSummaryRepository.findTop500ByYearAndIdGreaterThanOrderByIdAsc: keyset scans of a year
+CREATE INDEX IF NOT EXISTS ix_year_summary_year_id ON year_summary (year, id);
+
+-- MatchCacheRepository.sampleRecentPayloads and age-based maintenance of the cache
+CREATE INDEX IF NOT EXISTS ix_match_cache_fetched_at ON match_cache (fetched_at);
+
+-- MatchCacheRepository.findUncompressedMatchIds: only rows still stored as jsonb
+CREATE INDEX IF NOT EXISTS ix_match_cache_uncompressed ON match_cache (match_id) WHERE payload_json IS NOT NULL;
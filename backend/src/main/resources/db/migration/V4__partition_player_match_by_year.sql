@@ -0,0 +1,51 @@
+-- Range-partition player_match by year: every query filters on (puuid, year), so lookups prune to one
+-- partition, and an old season can be removed without touching the others:
+--   ALTER TABLE player_match DETACH PARTITION player_match_y2021;  -- then archive / DROP TABLE
+-- Years outside the explicit partitions land in player_match_default; split it off when a new range is
+-- added (ALTER TABLE player_match DETACH PARTITION player_match_default, create the new partitions,
+-- move rows, re-attach).
+--
+-- The primary and unique keys must contain the partition key, hence (id, year). A plain sequence is
+-- used instead of an identity column, which partitioned tables only support from PostgreSQL 17.
+
+CREATE SEQUENCE player_match_part_id_seq;
+
+CREATE TABLE player_match_part (
+    id            bigint                      NOT NULL DEFAULT nextval('player_match_part_id_seq'),
+    created_at    timestamp(6) with time zone NOT NULL,
+    match_id      varchar(64)                 NOT NULL,
+    puuid         varchar(128)                NOT NULL,
+    year          integer                     NOT NULL,
+    placement     integer,
+    level         integer,
+    gold_left     integer,
+    game_datetime bigint,
+    CONSTRAINT player_match_part_pkey PRIMARY KEY (id, year),
+    CONSTRAINT uk_player_match_part UNIQUE (puuid, year, match_id)
+) PARTITION BY RANGE (year);
+
+DO $$
+BEGIN
+    -- WrappedRequest accepts 2020..2030
+    FOR y IN 2020..2030 LOOP
+        EXECUTE format(
+            'CREATE TABLE player_match_y%s PARTITION OF player_match_part FOR VALUES FROM (%s) TO (%s)',
+            y, y, y + 1);
+    END LOOP;
+END $$;
+
+CREATE TABLE player_match_default PARTITION OF player_match_part DEFAULT;
+
+INSERT INTO player_match_part (id, created_at, match_id, puuid, year, placement, level, gold_left, game_datetime)
+SELECT id, created_at, match_id, puuid, year, placement, level, gold_left, game_datetime
+FROM player_match;
+
+SELECT setval('player_match_part_id_seq', COALESCE((SELECT max(id) FROM player_match_part), 0) + 1, false);
+
+DROP TABLE player_match;
+
+ALTER TABLE player_match_part RENAME TO player_match;
+ALTER TABLE player_match RENAME CONSTRAINT player_match_part_pkey TO player_match_pkey;
+ALTER TABLE player_match RENAME CONSTRAINT uk_player_match_part TO uk_player_match;
+ALTER SEQUENCE player_match_part_id_seq RENAME TO player_match_id_seq;
+ALTER SEQUENCE player_match_id_seq OWNED BY player_match.id;
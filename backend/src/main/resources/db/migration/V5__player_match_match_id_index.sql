@@ -0,0 +1,2 @@
+-- MatchCacheRepository.findArchivableMatchIds looks up the players of each match
+CREATE INDEX IF NOT EXISTS ix_player_match_match_id ON player_match (match_id);
@@ -0,0 +1,35 @@
+-- Per-job timeline (see JobRunRecorder): one job_run per executed job (one player or a batch roster),
+-- one job_run_stage row written when a stage ends. Kept for throughput analysis (/api/jobs/stages).
+
+CREATE TABLE job_run (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    year         integer                     NOT NULL,
+    players      integer                     NOT NULL,
+    started_at   timestamp(6) with time zone NOT NULL,
+    ended_at     timestamp(6) with time zone,
+    outcome      varchar(16),
+    riot_calls   integer                     NOT NULL,
+    retries      integer                     NOT NULL,
+    cache_hits   integer                     NOT NULL,
+    bytes_stored bigint                      NOT NULL,
+    CONSTRAINT job_run_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE job_run_stage (
+    id           bigint GENERATED BY DEFAULT AS IDENTITY,
+    job_run_id   bigint                      NOT NULL REFERENCES job_run (id) ON DELETE CASCADE,
+    stage        varchar(32)                 NOT NULL,
+    puuid        varchar(128), -- null for stages shared by all players of the job
+    started_at   timestamp(6) with time zone NOT NULL,
+    ended_at     timestamp(6) with time zone NOT NULL,
+    duration_ms  bigint                      NOT NULL,
+    riot_calls   integer                     NOT NULL,
+    retries      integer                     NOT NULL,
+    cache_hits   integer                     NOT NULL,
+    bytes_stored bigint                      NOT NULL,
+    CONSTRAINT job_run_stage_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX ix_job_run_stage_job_run_id ON job_run_stage (job_run_id);
+CREATE INDEX ix_job_run_stage_started_at ON job_run_stage (started_at);
+CREATE INDEX ix_job_run_started_at ON job_run (started_at);
@@ -0,0 +1,6 @@
+-- Version of the aggregation logic a summary was computed with (WrappedSummaryService.SUMMARY_VERSION).
+-- Rows that exist already were computed by version 1. Stale rows are recomputed lazily on read or in bulk.
+ALTER TABLE year_summary ADD COLUMN summary_version integer NOT NULL DEFAULT 1;
+
+-- BulkSummaryRecomputer pages through the stale summaries of a year
+CREATE INDEX IF NOT EXISTS ix_year_summary_year_version ON year_summary (year, summary_version, id);
@@ -0,0 +1,14 @@
+-- Mergeable summary accumulators per player and calendar month (Europe/Berlin), written with every year
+-- summary (see AccumulatorCodec). Date-range and multi-year summaries merge these rows instead of re-reading
+-- match payloads.
+CREATE TABLE player_month_aggregate (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY,
+    puuid           varchar(128)                NOT NULL,
+    month           date                        NOT NULL, -- first day of the month
+    summary_version integer                     NOT NULL,
+    games           integer                     NOT NULL,
+    accumulators    text                        NOT NULL,
+    computed_at     timestamp(6) with time zone NOT NULL,
+    CONSTRAINT player_month_aggregate_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_player_month_aggregate UNIQUE (puuid, month)
+);
@@ -0,0 +1,7 @@
+-- Signals to a running job (see JobCancellation): a client's cancel request and the last time a client polled
+-- its status. Deliberately not mapped in PlayerYearEntity, so the job's own saves of the row never reset them.
+ALTER TABLE player_year ADD COLUMN cancel_requested boolean NOT NULL DEFAULT false;
+ALTER TABLE player_year ADD COLUMN last_polled_at timestamp(6) with time zone;
+
+-- Computed while some of the player's match payloads were missing, e.g. the job was stopped by its budget
+ALTER TABLE year_summary ADD COLUMN partial boolean NOT NULL DEFAULT false;
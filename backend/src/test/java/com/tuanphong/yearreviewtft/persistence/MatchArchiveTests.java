@@ -0,0 +1,111 @@
+package com.tuanphong.yearreviewtft.persistence;
+
+import com.tuanphong.yearreviewtft.config.MatchArchiveProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchArchiveTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void appendedPayloadsSurviveReopenAndRollSegments() {
+        MatchArchive archive = new MatchArchive(props(DataSize.ofBytes(10)));
+        archive.append(List.of(entry("EUW1_1", "first", 7), entry("EUW1_2", "second", null)));
+        archive.append(List.of(entry("EUW1_3", "third", 7)));
+        archive.close();
+
+        MatchArchive reopened = new MatchArchive(props(DataSize.ofBytes(10)));
+        assertThat(reopened.size()).isEqualTo(3);
+        assertThat(text(reopened, "EUW1_1")).isEqualTo("first");
+        assertThat(reopened.read("EUW1_2").orElseThrow().dictionaryId()).isNull();
+        assertThat(reopened.read("EUW1_3").orElseThrow().dictionaryId()).isEqualTo(7);
+        assertThat(reopened.read("EUW1_4")).isEmpty();
+        assertThat(Files.exists(dir.resolve("seg-000002.dat"))).isTrue();
+        reopened.close();
+    }
+
+    @Test
+    void tornIndexTailIsIgnored() throws IOException {
+        MatchArchive archive = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        archive.append(List.of(entry("EUW1_1", "first", null)));
+        archive.close();
+        Files.write(dir.resolve("seg-000001.idx"), new byte[]{0, 6, 'E'}, StandardOpenOption.APPEND);
+
+        MatchArchive reopened = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        assertThat(reopened.size()).isEqualTo(1);
+        assertThat(text(reopened, "EUW1_1")).isEqualTo("first");
+        reopened.close();
+    }
+
+    @Test
+    void laterCopyWins() {
+        MatchArchive archive = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        archive.append(List.of(entry("EUW1_1", "old", null)));
+        archive.append(List.of(entry("EUW1_1", "new", null)));
+        archive.close();
+
+        MatchArchive reopened = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        assertThat(text(reopened, "EUW1_1")).isEqualTo("new");
+        reopened.close();
+    }
+
+    @Test
+    void instancesSharingTheDirectorySeeEachOthersAppends() {
+        MatchArchive a = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        MatchArchive b = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        a.append(List.of(entry("EUW1_1", "from a", null)));
+        b.append(List.of(entry("EUW1_2", "from b", 3)));
+
+        a.refreshIndex();
+        assertThat(text(a, "EUW1_2")).isEqualTo("from b");
+        assertThat(text(b, "EUW1_1")).isEqualTo("from a");
+
+        MatchArchive reopened = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        assertThat(reopened.size()).isEqualTo(2);
+        assertThat(text(reopened, "EUW1_1")).isEqualTo("from a");
+        a.close();
+        b.close();
+        reopened.close();
+    }
+
+    @Test
+    void appendAfterTornIndexTailKeepsLaterEntriesReadable() throws IOException {
+        MatchArchive archive = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        archive.append(List.of(entry("EUW1_1", "first", null)));
+        archive.close();
+        Files.write(dir.resolve("seg-000001.idx"), new byte[]{0, 6, 'E'}, StandardOpenOption.APPEND);
+
+        MatchArchive reopened = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        reopened.append(List.of(entry("EUW1_2", "second", null)));
+        reopened.close();
+
+        MatchArchive again = new MatchArchive(props(DataSize.ofMegabytes(1)));
+        assertThat(text(again, "EUW1_2")).isEqualTo("second");
+        assertThat(again.size()).isEqualTo(2);
+        again.close();
+    }
+
+    private MatchArchiveProperties props(DataSize segmentSize) {
+        return new MatchArchiveProperties(true, dir, Duration.ofDays(30), "0 0 5 * * *", 100, segmentSize);
+    }
+
+    private static MatchArchive.Entry entry(String matchId, String text, Integer dictId) {
+        return new MatchArchive.Entry(matchId, new MatchPayloadCodec.Encoded(text.getBytes(), dictId));
+    }
+
+    private static String text(MatchArchive archive, String matchId) {
+        return new String(archive.read(matchId).orElseThrow().bytes());
+    }
+}
@@ -0,0 +1,95 @@
+package com.tuanphong.yearreviewtft.riot;
+
+import com.tuanphong.yearreviewtft.config.RiotProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RiotKeyPoolTests {
+
+    private final List<String> used = new ArrayList<>();
+
+    @Test
+    void spreadsCallsOverKeysByLoad() {
+        RiotKeyPool pool = pool("a", "b");
+        ExchangeFunction riot = answering(Map.of());
+
+        for (int i = 0; i < 4; i++) call(pool, riot);
+
+        assertThat(used).containsExactly("a", "b", "a", "b");
+    }
+
+    @Test
+    void rejectedKeyIsQuarantined() {
+        RiotKeyPool pool = pool("revoked", "good");
+        ExchangeFunction riot = answering(Map.of("revoked", HttpStatus.FORBIDDEN));
+
+        for (int i = 0; i < 4; i++) call(pool, riot);
+
+        assertThat(used).containsExactly("revoked", "good", "good", "good");
+    }
+
+    @Test
+    void rateLimitedKeyCoolsDown() {
+        RiotKeyPool pool = pool("busy", "idle");
+        ExchangeFunction riot = answering(Map.of("busy", HttpStatus.TOO_MANY_REQUESTS));
+
+        for (int i = 0; i < 3; i++) call(pool, riot);
+
+        assertThat(used).containsExactly("busy", "idle", "idle");
+    }
+
+    @Test
+    void rateLimitInOneRegionLeavesOthersAlone() {
+        RiotKeyPool pool = pool("busy", "idle");
+        ExchangeFunction riot = answering(Map.of("busy", HttpStatus.TOO_MANY_REQUESTS));
+
+        call(pool, RiotRegion.EUROPE, riot);
+        call(pool, RiotRegion.EUROPE, riot);
+        call(pool, RiotRegion.AMERICAS, riot);
+
+        assertThat(used).containsExactly("busy", "idle", "busy");
+    }
+
+    private static RiotKeyPool pool(String... keys) {
+        RiotProperties props = new RiotProperties(null, List.of(keys), Duration.ofSeconds(10),
+                "http://localhost", Duration.ofMinutes(15));
+        return new RiotKeyPool(props, new SimpleMeterRegistry());
+    }
+
+    /** 200 with a 10-per-second app limit, or the given status (Retry-After 60) for some keys. */
+    private ExchangeFunction answering(Map<String, HttpStatus> statusByKey) {
+        return request -> {
+            String key = request.headers().getFirst("X-Riot-Token");
+            used.add(key);
+            HttpStatus status = statusByKey.getOrDefault(key, HttpStatus.OK);
+            return Mono.just(ClientResponse.create(status)
+                    .header("X-App-Rate-Limit", "10:1")
+                    .header("Retry-After", "60")
+                    .build());
+        };
+    }
+
+    private static void call(RiotKeyPool pool, ExchangeFunction riot) {
+        call(pool, RiotRegion.EUROPE, riot);
+    }
+
+    private static void call(RiotKeyPool pool, RiotRegion region, ExchangeFunction riot) {
+        pool.forRegion(region)
+                .filter(ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/x")).build(), riot)
+                .block();
+    }
+}
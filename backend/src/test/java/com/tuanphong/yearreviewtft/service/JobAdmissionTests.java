@@ -0,0 +1,93 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.config.JobQueueProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobAdmissionTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private JobAdmission admission;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (admission != null) admission.shutdown();
+    }
+
+    @Test
+    void batchBiggerThanTheClientLimitIsOneRequest() {
+        admission = admission(2, 10);
+
+        // two batches of 25 players each
+        admission.admit("client").close();
+        admission.admit("client").close();
+
+        assertThatThrownBy(() -> admission.admit("client"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class, e -> {
+                    assertThat(e.status()).isEqualTo(429);
+                    assertThat(e.retryAfterSeconds()).isBetween(1L, 60L);
+                });
+        admission.admit("other client").close();
+    }
+
+    @Test
+    void fullQueueIsRejectedBeforeAnyWork() {
+        admission = admission(100, 1);
+        admission.submit(this::block); // running
+        admission.submit(this::block); // queued, queue now full
+
+        assertThatThrownBy(() -> admission.admit("client"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class, e -> {
+                    assertThat(e.status()).isEqualTo(503);
+                    assertThat(e.queueDepth()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void rejectionForAFullQueueLeavesTheClientQuota() {
+        admission = admission(2, 1);
+        admission.submit(this::block); // running
+        admission.submit(this::block); // queued, queue now full
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> admission.admit("client"))
+                    .isInstanceOfSatisfying(AdmissionRejectedException.class, e -> assertThat(e.status()).isEqualTo(503));
+        }
+
+        release.countDown();
+        awaitIdle();
+        admission.admit("client").close();
+        admission.admit("client").close();
+        assertThatThrownBy(() -> admission.admit("client"))
+                .isInstanceOfSatisfying(AdmissionRejectedException.class, e -> assertThat(e.status()).isEqualTo(429));
+    }
+
+    private JobAdmission admission(int perClientPerMinute, int queueCapacity) {
+        return new JobAdmission(new JobQueueProperties(1, queueCapacity, perClientPerMinute, 16, Duration.ofSeconds(60)),
+                new SimpleMeterRegistry());
+    }
+
+    private void awaitIdle() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (admission.queueDepth() > 0 || admission.activeJobs() > 0) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private void block() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
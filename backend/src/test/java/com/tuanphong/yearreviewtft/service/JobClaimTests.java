@@ -0,0 +1,117 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.tuanphong.yearreviewtft.api.dto.WrappedRequest;
+import com.tuanphong.yearreviewtft.persistence.PlayerYearEntity;
+import com.tuanphong.yearreviewtft.persistence.PlayerYearRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class JobClaimTests {
+
+    private static final int YEAR = 2025;
+    private static final int CALLERS = 16;
+
+    @Autowired
+    WrappedTxService wrappedTxService;
+
+    @Autowired
+    PlayerYearRepository playerYearRepository;
+
+    @Autowired
+    JobCancellation jobCancellation;
+
+    private final String puuid = "claim-test-" + UUID.randomUUID();
+    private final WrappedRequest req = new WrappedRequest("claim#test", "EUW1", YEAR);
+    private final String jobId = UUID.randomUUID().toString();
+
+    @AfterEach
+    void cleanUp() {
+        playerYearRepository.findByPuuidAndYear(puuid, YEAR).ifPresent(playerYearRepository::delete);
+    }
+
+    @Test
+    void concurrentClaimsStartOneJob() throws Exception {
+        List<WrappedTxService.Claim> claims = claimConcurrently();
+
+        assertThat(claims).filteredOn(WrappedTxService.Claim::started).hasSize(1);
+        assertThat(claims).extracting(WrappedTxService.Claim::state).containsOnly("FETCHING_MATCH_IDS");
+    }
+
+    @Test
+    void failedJobIsRestartedOnce() throws Exception {
+        assertThat(wrappedTxService.claim(puuid, YEAR, req, jobId).started()).isTrue();
+        assertThat(wrappedTxService.claim(puuid, YEAR, req, jobId).started()).isFalse();
+        playerYearRepository.changeState(puuid, YEAR, "FETCHING_MATCH_IDS", "FAILED", "boom");
+
+        assertThat(claimConcurrently()).filteredOn(WrappedTxService.Claim::started).hasSize(1);
+    }
+
+    @Test
+    void finishedJobIsNotRestarted() throws Exception {
+        wrappedTxService.claim(puuid, YEAR, req, jobId);
+        playerYearRepository.changeState(puuid, YEAR, "FETCHING_MATCH_IDS", "DONE", "done");
+
+        List<WrappedTxService.Claim> claims = claimConcurrently();
+
+        assertThat(claims).noneMatch(WrappedTxService.Claim::started);
+        assertThat(claims).extracting(WrappedTxService.Claim::state).containsOnly("DONE");
+    }
+
+    @Test
+    void partialSummaryIsResumedOnce() throws Exception {
+        wrappedTxService.claim(puuid, YEAR, req, jobId);
+        PlayerYearEntity py = playerYearRepository.findByPuuidAndYear(puuid, YEAR).orElseThrow();
+        py.setSummaryReady(true);
+        py.setState("PARTIAL");
+        playerYearRepository.save(py);
+
+        assertThat(claimConcurrently()).filteredOn(WrappedTxService.Claim::started).hasSize(1);
+    }
+
+    @Test
+    void cancelStopsTheRunningJob() {
+        wrappedTxService.claim(puuid, YEAR, req, jobId);
+        PlayerYearEntity py = playerYearRepository.findByPuuidAndYear(puuid, YEAR).orElseThrow();
+        assertThat(jobCancellation.watch(new JobRun(null, 1), YEAR, 1, true).check(List.of(py))).isFalse();
+
+        assertThat(jobCancellation.cancel(puuid, YEAR, "someone else's job")).isFalse();
+        assertThat(jobCancellation.cancel(puuid, YEAR, jobId)).isTrue();
+        JobCancellation.Watch watch = jobCancellation.watch(new JobRun(null, 1), YEAR, 1, true);
+        assertThat(watch.check(List.of(py))).isTrue();
+        assertThat(watch.reason(py)).isEqualTo("Cancelled");
+    }
+
+    private List<WrappedTxService.Claim> claimConcurrently() throws Exception {
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<WrappedTxService.Claim>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(pool.submit(() -> {
+                    go.await();
+                    return wrappedTxService.claim(puuid, YEAR, req, jobId);
+                }));
+            }
+            go.countDown();
+
+            List<WrappedTxService.Claim> claims = new ArrayList<>();
+            for (Future<WrappedTxService.Claim> f : futures) claims.add(f.get());
+            return claims;
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
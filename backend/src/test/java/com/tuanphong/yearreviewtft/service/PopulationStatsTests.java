@@ -0,0 +1,125 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tuanphong.yearreviewtft.persistence.PopulationBucketRepository;
+import com.tuanphong.yearreviewtft.persistence.YearSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PopulationStatsTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void percentileCountsPlayersBelowAndHalfTheTies() {
+        PopulationStatsService.Histogram h = PopulationStatsService.Histogram.of(new long[]{2, 4, 0, 4});
+
+        assertThat(h.total()).isEqualTo(10);
+        assertThat(h.percentile(0)).isCloseTo(10.0, within(1e-9));  // (0 + 2/2) / 10
+        assertThat(h.percentile(1)).isCloseTo(40.0, within(1e-9));  // (2 + 4/2) / 10
+        assertThat(h.percentile(2)).isCloseTo(60.0, within(1e-9));  // empty bucket sits between
+        assertThat(h.percentile(3)).isCloseTo(80.0, within(1e-9));
+        assertThat(PopulationStatsService.Histogram.of(new long[3]).percentile(1)).isZero();
+    }
+
+    @Test
+    void contributionBucketsAreClamped() throws Exception {
+        PopulationStatsService.Contribution c = PopulationStatsService.contribution(objectMapper.readTree("""
+                {"gamesPlayed": 9000, "avgPlacement": 4.256, "top4Rate": 1.7,
+                 "topTraits": [{"name": "Bruiser"}, {"name": ""}, {"name": "Sniper"}]}
+                """));
+
+        assertThat(c.avgBucket()).isEqualTo(326);
+        assertThat(c.gamesBucket()).isEqualTo(5000);
+        assertThat(c.top4Bucket()).isEqualTo(100);
+
+        List<PopulationStatsService.BucketKey> keys = new ArrayList<>();
+        c.forEachBucket(2025, keys::add);
+        assertThat(keys).containsExactly(
+                new PopulationStatsService.BucketKey(2025, PopulationStatsService.POPULATION, "all"),
+                new PopulationStatsService.BucketKey(2025, PopulationStatsService.AVG_PLACEMENT, "326"),
+                new PopulationStatsService.BucketKey(2025, PopulationStatsService.GAMES_PLAYED, "5000"),
+                new PopulationStatsService.BucketKey(2025, PopulationStatsService.TOP4_RATE, "100"),
+                new PopulationStatsService.BucketKey(2025, PopulationStatsService.TRAITS, "Bruiser"),
+                new PopulationStatsService.BucketKey(2025, PopulationStatsService.TRAITS, "Sniper"));
+    }
+
+    @Test
+    void summariesWithoutGamesContributeNothing() throws Exception {
+        assertThat(PopulationStatsService.contribution(objectMapper.readTree("{\"gamesPlayed\": 0}"))).isNull();
+        assertThat(PopulationStatsService.contribution(null)).isNull();
+    }
+
+    @Test
+    void savesDuringARebuildAreAppliedOnTopOfTheRecount() {
+        PopulationBucketRepository buckets = mock(PopulationBucketRepository.class);
+        YearSummaryRepository summaries = mock(YearSummaryRepository.class);
+        Map<String, Long> stored = fakeBuckets(buckets);
+        stored.put("population/all", 7L); // drifted
+        PopulationStatsService service = new PopulationStatsService(buckets, summaries, objectMapper,
+                mock(PlatformTransactionManager.class));
+
+        String a = summary(4.0), aRecomputed = summary(3.0), b = summary(5.0), c = summary(2.0);
+        service.onSummarySaved(new SummarySavedEvent("b", 2025, null, b)); // before the rebuild: in its snapshot
+
+        when(summaries.findSummaryPage(eq(2025), eq(0L), any())).thenAnswer(inv -> {
+            // committed after the snapshot: a is recomputed, c is new
+            service.onSummarySaved(new SummarySavedEvent("a", 2025, a, aRecomputed));
+            service.onSummarySaved(new SummarySavedEvent("c", 2025, null, c));
+            return List.of(row(1L, a), row(2L, b));
+        });
+        when(summaries.findSummaryPage(eq(2025), eq(2L), any())).thenReturn(List.of());
+
+        service.rebuild(2025);
+        assertThat(stored).containsEntry("population/all", 2L).containsEntry("avgPlacement/300", 1L);
+
+        when(buckets.count()).thenReturn(1L);
+        service.flushAndRefresh();
+        assertThat(stored)
+                .containsEntry("population/all", 3L)
+                .containsEntry("avgPlacement/300", 0L)  // a before its recompute
+                .containsEntry("avgPlacement/200", 1L)  // a
+                .containsEntry("avgPlacement/400", 1L)  // b, counted once
+                .containsEntry("avgPlacement/100", 1L); // c
+    }
+
+    private static Map<String, Long> fakeBuckets(PopulationBucketRepository buckets) {
+        Map<String, Long> stored = new HashMap<>();
+        doAnswer(inv -> stored.merge(inv.getArgument(1) + "/" + inv.getArgument(2), inv.<Long>getArgument(3), Long::sum))
+                .when(buckets).addToBucket(anyInt(), anyString(), anyString(), anyLong());
+        doAnswer(inv -> stored.put(inv.getArgument(1) + "/" + inv.getArgument(2), inv.<Long>getArgument(3)))
+                .when(buckets).setBucket(anyInt(), anyString(), anyString(), anyLong());
+        doAnswer(inv -> {
+            stored.clear(); // a single year in these tests
+            return null;
+        }).when(buckets).deleteByYear(anyInt());
+        return stored;
+    }
+
+    private static String summary(double avgPlacement) {
+        return "{\"gamesPlayed\": 10, \"avgPlacement\": " + avgPlacement + ", \"top4Rate\": 0.5}";
+    }
+
+    private static YearSummaryRepository.SummaryRow row(long id, String json) {
+        return new YearSummaryRepository.SummaryRow() {
+            public Long getId() { return id; }
+            public String getSummaryJson() { return json; }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.tuanphong.yearreviewtft.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tuanphong.yearreviewtft.persistence.PlayerMatchRepository;
+import com.tuanphong.yearreviewtft.persistence.PlayerMonthAggregateEntity;
+import com.tuanphong.yearreviewtft.persistence.PlayerMonthAggregateRepository;
+import com.tuanphong.yearreviewtft.persistence.YearSummaryRepository;
+import com.tuanphong.yearreviewtft.service.summary.AccumulatorCodec;
+import com.tuanphong.yearreviewtft.service.summary.Aggregators;
+import com.tuanphong.yearreviewtft.service.summary.PlayerGame;
+import com.tuanphong.yearreviewtft.service.summary.StreakAggregator;
+import com.tuanphong.yearreviewtft.service.summary.SummaryEngine;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RangeSummaryServiceTests {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SummaryEngine engine = new SummaryEngine(List.of(new StreakAggregator()));
+    private final AccumulatorCodec codec = new AccumulatorCodec(engine, mapper);
+
+    @Test
+    void streakContinuesAcrossAMonthBoundary() {
+        // placements by day: Jan 29: 6, Jan 30: 1, Jan 31: 1 | Feb 1: 1, Feb 2: 3, Feb 3: 1; games arrive unordered
+        String january = stored(game(31, 1), game(29, 6), game(30, 1));
+        String february = stored(game(34, 1), game(32, 1), game(33, 3));
+
+        PlayerMonthAggregateRepository months = mock(PlayerMonthAggregateRepository.class);
+        List<PlayerMonthAggregateEntity> rows = List.of(row(1, january), row(2, february));
+        when(months.findByPuuidOrderByMonthAsc("p")).thenReturn(rows);
+        RangeSummaryService service = new RangeSummaryService(months, mock(PlayerMatchRepository.class),
+                mock(YearSummaryRepository.class), codec, engine, mock(WrappedSummaryService.class),
+                mock(StaleSummaryRecomputer.class));
+
+        Map<String, Object> summary = service.summarize("p", null, null);
+
+        assertThat(summary.get("months")).isEqualTo(2);
+        assertThat(summary.get("streaks")).isEqualTo(Map.of("longestWinStreak", 3, "longestTop4Streak", 5));
+        assertThat(january).doesNotContain("pending").hasSizeLessThan(200);
+    }
+
+    private String stored(PlayerGame... games) {
+        SummaryEngine.Run run = engine.start();
+        for (PlayerGame g : games) run.accept(g);
+        return codec.write(run);
+    }
+
+    private static PlayerMonthAggregateEntity row(int month, String accumulators) {
+        PlayerMonthAggregateEntity row = mock(PlayerMonthAggregateEntity.class);
+        when(row.getMonth()).thenReturn(LocalDate.of(2025, month, 1));
+        when(row.getAccumulators()).thenReturn(accumulators);
+        return row;
+    }
+
+    private PlayerGame game(int dayOfYear, int placement) {
+        long time = LocalDate.ofYearDay(2025, dayOfYear).atTime(12, 0).atZone(Aggregators.ZONE).toInstant().toEpochMilli();
+        return new PlayerGame("M" + dayOfYear, mapper.createObjectNode(), mapper.createObjectNode(), placement, time);
+    }
+}
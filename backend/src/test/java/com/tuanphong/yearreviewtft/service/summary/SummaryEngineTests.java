@@ -0,0 +1,123 @@
+package com.tuanphong.yearreviewtft.service.summary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SummaryEngineTests {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final SummaryEngine engine = new SummaryEngine(List.of(
+            new PlacementAggregator(),
+            new TraitAggregator(),
+            new BestWorstAggregator(),
+            new MonthlyAggregator(),
+            new StreakAggregator(),
+            new CompAggregator()
+    ));
+
+    @Test
+    void singlePassProducesAllMetrics() {
+        SummaryEngine.Run run = engine.start();
+        run.accept(game("M1", 1, 1));
+        run.accept(game("M2", 1, 2));
+        run.accept(game("M3", 6, 3));
+        run.accept(game("M4", 3, 4));
+
+        Map<String, Object> summary = finish(run);
+
+        assertThat(summary.get("gamesPlayed")).isEqualTo(4);
+        assertThat(summary.get("avgPlacement")).isEqualTo(2.75);
+        assertThat(summary.get("top4Rate")).isEqualTo(0.75);
+        assertThat(summary.get("streaks")).isEqualTo(Map.of("longestWinStreak", 2, "longestTop4Streak", 2));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> best = (Map<String, Object>) summary.get("bestGame");
+        assertThat(best.get("placement")).isEqualTo(1);
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> comps = (List<Map<String, Object>>) summary.get("topComps");
+        assertThat(comps).hasSize(1);
+        assertThat(comps.get(0).get("name")).isEqualTo("TFT_Bruiser + TFT_Sniper");
+        assertThat(comps.get(0).get("count")).isEqualTo(4L);
+    }
+
+    @Test
+    void mergedRunsMatchSingleRun() {
+        SummaryEngine.Run whole = engine.start();
+        SummaryEngine.Run left = engine.start();
+        SummaryEngine.Run right = engine.start();
+
+        for (int i = 0; i < 10; i++) {
+            PlayerGame g = game("M" + i, (i % 8) + 1, i + 1);
+            whole.accept(g);
+            (i < 5 ? left : right).accept(g);
+        }
+
+        assertThat(finish(left.merge(right))).isEqualTo(finish(whole));
+    }
+
+    @Test
+    void storedRunsMergeLikeLiveRuns() {
+        AccumulatorCodec codec = new AccumulatorCodec(engine, mapper);
+        SummaryEngine.Run whole = engine.start();
+        SummaryEngine.Run january = engine.start();
+        SummaryEngine.Run february = engine.start();
+
+        for (int i = 0; i < 50; i += 3) {
+            PlayerGame g = game("M" + i, (i % 8) + 1, i + 1);
+            whole.accept(g);
+            (i < 31 ? january : february).accept(g);
+        }
+
+        SummaryEngine.Run restored = codec.read(codec.write(january)).merge(codec.read(codec.write(february)));
+        assertThat(finish(restored)).isEqualTo(finish(whole));
+    }
+
+    @Test
+    void monthlySpansYearsOnlyWhenTheGamesDo() {
+        SummaryEngine.Run run = engine.start();
+        run.accept(game("M1", 2, 1));
+        run.accept(game("M2", 4, 40));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> year = (List<Map<String, Object>>) finish(run).get("monthly");
+        assertThat(year).hasSize(12);
+        assertThat(year.get(1)).isEqualTo(Map.of("month", 2, "games", 1, "avgPlacement", 4.0));
+
+        run.accept(game("M0", 5, 0)); // 2024-12-31
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> range = (List<Map<String, Object>>) finish(run).get("monthly");
+        assertThat(range).extracting(p -> p.get("month")).containsExactly("2024-12", "2025-01", "2025-02");
+    }
+
+    private Map<String, Object> finish(SummaryEngine.Run run) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        run.finish(summary);
+        return summary;
+    }
+
+    private PlayerGame game(String matchId, int placement, int dayOfYear) {
+        ObjectNode me = mapper.createObjectNode();
+        me.put("placement", placement);
+        me.put("level", 8);
+        me.put("gold_left", 3);
+        ArrayNode traits = me.putArray("traits");
+        traits.addObject().put("name", "TFT_Sniper").put("num_units", 4).put("style", 2).put("tier_current", 2);
+        traits.addObject().put("name", "TFT_Bruiser").put("num_units", 2).put("style", 1).put("tier_current", 1);
+        traits.addObject().put("name", "TFT_Mage").put("num_units", 1).put("style", 0).put("tier_current", 0);
+
+        long time = ZonedDateTime.of(2025, 1, 1, 12, 0, 0, 0, Aggregators.ZONE)
+                .plusDays(dayOfYear - 1).toInstant().toEpochMilli();
+        return new PlayerGame(matchId, mapper.createObjectNode(), me, placement, time);
+    }
+}
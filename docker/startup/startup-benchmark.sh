@@ -0,0 +1,37 @@
+#!/bin/bash
+# Training run for the CDS archive plus a cold-start comparison, used by the Dockerfile's training stage.
+#   startup-benchmark.sh <fat jar> <extracted dir> [runs]
+# Needs SPRING_DATASOURCE_URL/USERNAME/PASSWORD of a reachable Postgres; AOT=true when the jar was built with -Paot.
+# Each run exits as soon as the context is refreshed (all singletons created, Flyway and Hibernate done),
+# so the numbers are JVM start to "ready", without serving traffic.
+set -euo pipefail
+
+JAR=$1
+DIR=$2
+RUNS=${3:-3}
+AOT=${AOT:-false}
+APP="$DIR/$(basename "$JAR")"
+OPTS=(-Dspring.context.exit=onRefresh -Dspring.main.banner-mode=off -Dlogging.level.root=WARN)
+
+# the archive only matches the classpath it was written with: run from the final location
+java -XX:ArchiveClassesAtExit="$DIR/app.jsa" -Dspring.aot.enabled="$AOT" "${OPTS[@]}" -jar "$APP" >/dev/null
+
+# best <jar> [jvm options...]: fastest of $RUNS starts, in ms
+best() {
+  local jar=$1 min=0 start ms
+  shift
+  for _ in $(seq "$RUNS"); do
+    start=$(date +%s%N)
+    java "$@" "${OPTS[@]}" -jar "$jar" >/dev/null
+    ms=$(( ($(date +%s%N) - start) / 1000000 ))
+    if [ "$min" -eq 0 ] || [ "$ms" -lt "$min" ]; then min=$ms; fi
+  done
+  echo "$min"
+}
+
+plain=$(best "$JAR")
+cds=$(best "$APP" -XX:SharedArchiveFile="$DIR/app.jsa" -Dspring.aot.enabled="$AOT")
+
+echo "startup until context refreshed, best of $RUNS:"
+printf '  %-30s %6d ms\n' "java -jar (plain)" "$plain"
+printf '  %-30s %6d ms  (%d%%)\n' "extracted + CDS, aot=$AOT" "$cds" $(( cds * 100 / plain ))
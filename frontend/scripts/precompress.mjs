@@ -0,0 +1,41 @@
+// Writes .gz and .br siblings next to compressible files of the static export (default: out/), so the
+// backend can serve them without compressing per request. Usage: node scripts/precompress.mjs [dir]
+import { readdir, readFile, stat, writeFile } from "node:fs/promises";
+import { join, extname } from "node:path";
+import { brotliCompressSync, constants, gzipSync } from "node:zlib";
+
+const COMPRESSIBLE = new Set([".html", ".js", ".css", ".json", ".svg", ".txt", ".xml", ".map", ".ico"]);
+const MIN_BYTES = 1024;
+
+async function* files(dir) {
+  for (const entry of await readdir(dir, { withFileTypes: true })) {
+    const path = join(dir, entry.name);
+    if (entry.isDirectory()) yield* files(path);
+    else yield path;
+  }
+}
+
+const root = process.argv[2] ?? "out";
+let raw = 0, gz = 0, br = 0;
+
+for await (const path of files(root)) {
+  if (!COMPRESSIBLE.has(extname(path)) || (await stat(path)).size < MIN_BYTES) continue;
+
+  const data = await readFile(path);
+  const gzipped = gzipSync(data, { level: 9 });
+  const brotli = brotliCompressSync(data, {
+    params: {
+      [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+      [constants.BROTLI_PARAM_SIZE_HINT]: data.length,
+    },
+  });
+
+  // only keep variants that are actually smaller
+  if (gzipped.length < data.length) await writeFile(path + ".gz", gzipped);
+  if (brotli.length < data.length) await writeFile(path + ".br", brotli);
+  raw += data.length;
+  gz += Math.min(gzipped.length, data.length);
+  br += Math.min(brotli.length, data.length);
+}
+
+console.log(`precompressed ${root}: ${raw} B -> gzip ${gz} B, brotli ${br} B`);
@@ -20,6 +20,9 @@ type StatusResponse = {
     message: string;
 };
 
+// states of a job that is still working (same list as the backend's WrappedService.isRunning)
+const RUNNING_STATES = ["FETCHING_MATCH_IDS", "SAVING_MATCH_IDS", "FETCHING_MATCH_DETAILS", "COMPUTING"];
+
 type ApiError = {
     message?: string;
     error?: string;
@@ -165,15 +168,17 @@ export default function StartPageClient() {
 
                     setStatus(stJson);
 
-                    // if ready -> go to /wrapped
-                    if (stJson.summaryReady || stJson.state === "DONE") {
+                    // if ready -> go to /wrapped; a resumed PARTIAL job still has its old summary while it runs,
+                    // keep polling (polls keep the job alive) until it ends
+                    const jobEnded = !RUNNING_STATES.includes(stJson.state);
+                    if (stJson.state === "DONE" || (jobEnded && stJson.summaryReady)) {
                         setStage("DONE");
                         router.replace(`/wrapped?puuid=${encodeURIComponent(puuid)}&year=${encodeURIComponent(String(year))}`);
                         return;
                     }
 
                     // If failed -> show error
-                    if (stJson.state === "FAILED") {
+                    if (stJson.state === "FAILED" || stJson.state === "CANCELLED") {
                         throw new Error(stJson.message || "Job failed.");
                     }
 
@@ -13,6 +13,10 @@ export type WrappedApiResponse = {
     topUnits: { name: string; count: number }[];
     bestGame: { level: number; placement: number; goldLeft: number; matchId: string };
     worstGame: { level: number; placement: number; goldLeft: number; matchId: string };
+    // month is 1..12 when all games fall in one year, else "YYYY-MM"
+    monthly?: { month: number | string; games: number; avgPlacement: number }[];
+    streaks?: { longestWinStreak: number; longestTop4Streak: number };
+    topComps?: { name: string; traits: string[]; count: number; avgPlacement: number }[];
 };
 
 export type WrappedListItem = {